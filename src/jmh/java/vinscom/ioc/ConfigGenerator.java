@@ -0,0 +1,316 @@
+package vinscom.ioc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes synthetic configuration layers of {@link SyntheticComponent} for benchmarks and scaling harness.
+ *
+ * First layer defines every component. Every other layer overrides a share of components, given by merge density,
+ * setting <code>prop0</code> and adding to or removing from one list with <code>+=</code> or <code>-=</code>. First
+ * layer also has <code>/Initial</code> starting all GLOBAL components.
+ *
+ * Generation is deterministic, so same settings always write same files.
+ *
+ * @author vinay
+ */
+public class ConfigGenerator {
+
+  public static final String INITIAL = "/Initial";
+  private static final int COMPONENTS_PER_DIRECTORY = 100;
+
+  private int components = 1000;
+  private int layers = 2;
+  private int properties = 4;
+  private double mergeDensity = 0.1;
+  private int baseDepth = 0;
+  private int referenceFanOut = 0;
+  private double globalRatio = 0.5;
+  private int parallelism = 0;
+  private boolean peers = true;
+
+  /**
+   * @param pRoot Directory in which layers are created
+   * @return Directories of layers, in order
+   */
+  public List<String> generate(Path pRoot) {
+
+    List<String> result = new ArrayList<>();
+
+    try {
+      for (int layer = 0; layer < getLayers(); layer++) {
+        Path dir = pRoot.resolve("layer" + layer);
+        for (int i = 0; i < getComponents(); i++) {
+          if (layer == 0) {
+            write(dir, getPath(i), component(i));
+          } else if (isOverridden(layer, i)) {
+            write(dir, getPath(i), override(layer, i));
+          }
+        }
+        if (layer == 0) {
+          for (int depth = 0; depth < getBaseDepth(); depth++) {
+            write(dir, getBasePath(depth), base(depth));
+          }
+          write(dir, INITIAL, initial());
+        }
+        result.add(dir.toString());
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    return result;
+  }
+
+  /**
+   * @param pIndex
+   * @return Path of generated component
+   */
+  public static String getPath(int pIndex) {
+    return "/generated/group" + (pIndex / COMPONENTS_PER_DIRECTORY) + "/Component" + pIndex;
+  }
+
+  public static String getBasePath(int pDepth) {
+    return "/generated/base/Base" + pDepth;
+  }
+
+  /**
+   * @param pIndex
+   * @return true if component is GLOBAL. GLOBAL components are spread evenly, first component of every hundred is
+   * always GLOBAL unless ratio is 0.
+   */
+  public boolean isGlobal(int pIndex) {
+    return (pIndex % 100) < Math.ceil(getGlobalRatio() * 100);
+  }
+
+  private boolean isOverridden(int pLayer, int pIndex) {
+    return mix(pLayer * 31 + pIndex) % 1000 < getMergeDensity() * 1000;
+  }
+
+  private String component(int pIndex) {
+
+    StringBuilder sb = new StringBuilder();
+
+    if (getBaseDepth() > 0) {
+      sb.append("$basedOn=").append(getBasePath(getBaseDepth() - 1)).append('\n');
+    } else {
+      sb.append("$class=").append(SyntheticComponent.class.getName()).append('\n');
+    }
+
+    sb.append("$scope=").append(isGlobal(pIndex) ? "GLOBAL" : "LOCAL").append('\n');
+
+    for (int p = 0; p < Math.min(getProperties(), SyntheticComponent.PROPERTIES); p++) {
+      sb.append("prop").append(p).append("=value").append(pIndex).append('_').append(p).append('\n');
+    }
+
+    for (int l = 0; l < SyntheticComponent.LISTS; l++) {
+      sb.append("list").append(l).append("=a,b,c\n");
+    }
+
+    if (getGlobalRatio() > 0) {
+      for (int r = 0; r < Math.min(getReferenceFanOut(), SyntheticComponent.REFERENCES); r++) {
+        sb.append("ref").append(r).append("^=").append(getPath(getGlobalTarget(pIndex, r))).append(".prop0\n");
+      }
+      if (isPeers()) {
+        sb.append("peer=").append(getPath(getGlobalTarget(pIndex, SyntheticComponent.REFERENCES))).append('\n');
+      }
+    }
+
+    return sb.toString();
+  }
+
+  /**
+   * @return GLOBAL component referred by component, first of its hundred, so LOCAL components never refer each other
+   */
+  private int getGlobalTarget(int pIndex, int pReference) {
+    int target = mix(pIndex * 17 + pReference) % getComponents();
+    return target - (target % 100);
+  }
+
+  private String override(int pLayer, int pIndex) {
+
+    StringBuilder sb = new StringBuilder();
+    int list = pLayer % SyntheticComponent.LISTS;
+
+    sb.append("prop0=layer").append(pLayer).append('\n');
+
+    if ((pIndex + pLayer) % 2 == 0) {
+      sb.append("list").append(list).append("+=layer").append(pLayer).append('\n');
+    } else {
+      sb.append("list").append(list).append("-=a\n");
+    }
+
+    return sb.toString();
+  }
+
+  private String base(int pDepth) {
+
+    StringBuilder sb = new StringBuilder();
+
+    if (pDepth == 0) {
+      sb.append("$class=").append(SyntheticComponent.class.getName()).append('\n');
+    } else {
+      sb.append("$basedOn=").append(getBasePath(pDepth - 1)).append('\n');
+    }
+
+    sb.append("prop").append(pDepth % SyntheticComponent.PROPERTIES).append("=base").append(pDepth).append('\n');
+    sb.append("list0+=base").append(pDepth).append('\n');
+
+    return sb.toString();
+  }
+
+  private String initial() {
+
+    StringBuilder sb = new StringBuilder();
+
+    sb.append("$class=vinscom.ioc.component.Initial\n");
+    sb.append("parallelism=").append(getParallelism()).append('\n');
+    sb.append("initial=");
+
+    String separator = "";
+
+    for (int i = 0; i < getComponents(); i++) {
+      if (isGlobal(i)) {
+        sb.append(separator).append(getPath(i));
+        separator = ",\\\n    ";
+      }
+    }
+
+    sb.append('\n');
+
+    return sb.toString();
+  }
+
+  private static int mix(int pValue) {
+    int h = pValue * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+  }
+
+  private static void write(Path pLayer, String pComponentPath, String pContent) throws IOException {
+    Path file = pLayer.resolve(pComponentPath.substring(1) + ".properties");
+    Files.createDirectories(file.getParent());
+    Files.write(file, pContent.getBytes());
+  }
+
+  /**
+   * @param pRoot Directory to delete with all its content
+   */
+  public static void delete(Path pRoot) {
+    try {
+      if (Files.exists(pRoot)) {
+        Files
+                .walk(pRoot)
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach((p) -> p.toFile().delete());
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public int getComponents() {
+    return components;
+  }
+
+  public void setComponents(int pComponents) {
+    this.components = pComponents;
+  }
+
+  public int getLayers() {
+    return layers;
+  }
+
+  public void setLayers(int pLayers) {
+    this.layers = pLayers;
+  }
+
+  /**
+   * @return Number of string properties of every component, at most {@value SyntheticComponent#PROPERTIES}
+   */
+  public int getProperties() {
+    return properties;
+  }
+
+  public void setProperties(int pProperties) {
+    this.properties = pProperties;
+  }
+
+  /**
+   * @return Share of components, from 0 to 1, overridden by every layer after first
+   */
+  public double getMergeDensity() {
+    return mergeDensity;
+  }
+
+  public void setMergeDensity(double pMergeDensity) {
+    this.mergeDensity = pMergeDensity;
+  }
+
+  /**
+   * @return Length of <code>$basedOn</code> chain of every component, 0 for none
+   */
+  public int getBaseDepth() {
+    return baseDepth;
+  }
+
+  public void setBaseDepth(int pBaseDepth) {
+    this.baseDepth = pBaseDepth;
+  }
+
+  /**
+   * @return Number of <code>^=</code> references of every component to GLOBAL components, at most
+   * {@value SyntheticComponent#REFERENCES}
+   */
+  public int getReferenceFanOut() {
+    return referenceFanOut;
+  }
+
+  public void setReferenceFanOut(int pReferenceFanOut) {
+    this.referenceFanOut = pReferenceFanOut;
+  }
+
+  /**
+   * @return Share of components, from 0 to 1, which are GLOBAL
+   */
+  public double getGlobalRatio() {
+    return globalRatio;
+  }
+
+  public void setGlobalRatio(double pGlobalRatio) {
+    this.globalRatio = pGlobalRatio;
+  }
+
+  /**
+   * @return Parallelism of <code>/Initial</code>
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int pParallelism) {
+    this.parallelism = pParallelism;
+  }
+
+  /**
+   * @return true if every component refers a GLOBAL component as its peer, which makes cycles between GLOBAL components
+   */
+  public boolean isPeers() {
+    return peers;
+  }
+
+  public void setPeers(boolean pPeers) {
+    this.peers = pPeers;
+  }
+
+  @Override
+  public String toString() {
+    return "components=" + components + " layers=" + layers + " properties=" + properties + " mergeDensity=" + mergeDensity
+            + " baseDepth=" + baseDepth + " referenceFanOut=" + referenceFanOut + " globalRatio=" + globalRatio
+            + " parallelism=" + parallelism + " peers=" + peers;
+  }
+
+}
@@ -0,0 +1,358 @@
+package vinscom.ioc;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import vinscom.ioc.common.Constant;
+import vinscom.ioc.component.ServiceMap;
+
+/**
+ * Drives {@link Glue#resolve(java.lang.String)} from growing number of threads on generated configuration, and prints
+ * scalability curve: throughput, latency percentiles, and time threads were blocked on monitors or waiting.
+ *
+ * Every thread count has two phases:
+ * <ul>
+ * <li>Mix: for given duration every thread picks operation by weight, GLOBAL hit, LOCAL creation or ServiceMap
+ * lookup.</li>
+ * <li>First creation: all threads resolve same GLOBAL components not created before, in different order. Every
+ * thread must get same instance of every path, and instance must be started.</li>
+ * </ul>
+ *
+ * Harness exits with status 1 if any invariant is broken. Arguments are <code>key=value</code>, for example
+ * <code>threads=1,2,4,8 duration=5 global=70 local=20 serviceMap=10</code>.
+ *
+ * @author vinay
+ */
+public class ContentionHarness {
+
+  private static final Map<String, String> DEFAULTS = new HashMap<>();
+  private static final int SERVICES = 200;
+  private static final int MAX_SAMPLES = 1 << 20;
+
+  static {
+    DEFAULTS.put("threads", "1,2,4,8");
+    DEFAULTS.put("duration", "5");
+    DEFAULTS.put("warmup", "2");
+    DEFAULTS.put("global", "70");
+    DEFAULTS.put("local", "20");
+    DEFAULTS.put("serviceMap", "10");
+    DEFAULTS.put("components", "20000");
+    DEFAULTS.put("firstCreation", "200");
+    DEFAULTS.put("referenceFanOut", "2");
+    DEFAULTS.put("peers", "false");
+  }
+
+  private final List<String> globals = new ArrayList<>();
+  private final List<String> locals = new ArrayList<>();
+  private final List<String> fresh = new ArrayList<>();
+  private final AtomicInteger freshNext = new AtomicInteger();
+  private final List<String> violations = new ArrayList<>();
+  private ServiceMap services;
+  private String[] serviceKeys;
+  private int globalWeight;
+  private int localWeight;
+  private int serviceWeight;
+
+  public static void main(String[] pArgs) throws Exception {
+
+    Map<String, String> args = new HashMap<>(DEFAULTS);
+
+    for (String arg : pArgs) {
+      String[] kv = arg.split("=", 2);
+      if (kv.length != 2 || !DEFAULTS.containsKey(kv[0])) {
+        throw new IllegalArgumentException("Unknown argument:" + arg + ", expected key=value with key one of " + DEFAULTS.keySet());
+      }
+      args.put(kv[0], kv[1]);
+    }
+
+    Path root = Files.createTempDirectory("glue-contention");
+
+    try {
+      ContentionHarness harness = new ContentionHarness();
+      harness.setup(root, args);
+      if (!harness.run(args)) {
+        System.exit(1);
+      }
+    } finally {
+      ConfigGenerator.delete(root);
+    }
+  }
+
+  /**
+   * Configuration is generated before repository is first used, so it loads generated layers instead of layers given
+   * to JVM.
+   */
+  private void setup(Path pRoot, Map<String, String> pArgs) throws IOException {
+
+    ConfigGenerator generator = new ConfigGenerator();
+    generator.setComponents(Integer.parseInt(pArgs.get("components")));
+    generator.setReferenceFanOut(Integer.parseInt(pArgs.get("referenceFanOut")));
+    generator.setPeers(Boolean.parseBoolean(pArgs.get("peers")));
+    generator.setMergeDensity(0);
+    generator.setLayers(1);
+
+    System.setProperty(Constant.SystemProperties.LAYERS, String.join(",", generator.generate(pRoot)));
+
+    for (int i = 0; i < generator.getComponents(); i++) {
+      (generator.isGlobal(i) ? globals : locals).add(ConfigGenerator.getPath(i));
+    }
+
+    //Last GLOBAL components are left for first creation phase, others are created now
+    int firstCreation = Integer.parseInt(pArgs.get("firstCreation")) * parseInts(pArgs.get("threads")).size();
+
+    if (firstCreation > globals.size() / 2) {
+      throw new IllegalArgumentException("Not enough GLOBAL components for first creation phase, increase components");
+    }
+
+    List<String> last = globals.subList(globals.size() - firstCreation, globals.size());
+    fresh.addAll(last);
+    last.clear();
+
+    Glue glue = Glue.instance();
+    globals.forEach(glue::resolve);
+
+    Map<String, String> map = new HashMap<>();
+    serviceKeys = new String[SERVICES];
+    for (int i = 0; i < SERVICES; i++) {
+      serviceKeys[i] = "handler" + i;
+      map.put(serviceKeys[i], globals.get(i % globals.size()));
+    }
+    services = new ServiceMap(map);
+    services.getServices();
+
+    globalWeight = Integer.parseInt(pArgs.get("global"));
+    localWeight = Integer.parseInt(pArgs.get("local"));
+    serviceWeight = Integer.parseInt(pArgs.get("serviceMap"));
+  }
+
+  private boolean run(Map<String, String> pArgs) throws Exception {
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    if (threads.isThreadContentionMonitoringSupported()) {
+      threads.setThreadContentionMonitoringEnabled(true);
+    }
+
+    List<Integer> threadCounts = parseInts(pArgs.get("threads"));
+    long duration = Long.parseLong(pArgs.get("duration")) * 1000;
+    int firstCreation = Integer.parseInt(pArgs.get("firstCreation"));
+
+    System.out.println("Warming up");
+    mix(threadCounts.stream().mapToInt(Integer::intValue).max().getAsInt(), Long.parseLong(pArgs.get("warmup")) * 1000);
+
+    System.out.println(String.format("%8s %12s %10s %10s %10s %16s %16s %14s", "threads", "ops/s", "p50 us", "p99 us", "p999 us", "blocked ms/thr", "waited ms/thr", "first create"));
+
+    for (int count : threadCounts) {
+      Result result = mix(count, duration);
+      String first = firstCreation(count, firstCreation);
+      System.out.println(String.format("%8d %12.0f %10.1f %10.1f %10.1f %16.1f %16.1f %14s",
+              count,
+              result.operations * 1000.0 / duration,
+              result.percentile(0.5) / 1000.0,
+              result.percentile(0.99) / 1000.0,
+              result.percentile(0.999) / 1000.0,
+              result.blocked / (double) count,
+              result.waited / (double) count,
+              first));
+    }
+
+    if (!threads.isThreadContentionMonitoringSupported()) {
+      System.out.println("Thread contention monitoring is not supported by JVM, blocked time is not measured");
+    }
+
+    violations.forEach(System.out::println);
+
+    return violations.isEmpty();
+  }
+
+  /**
+   * Every thread runs mix of operations for given time.
+   */
+  private Result mix(int pThreads, long pDuration) throws Exception {
+
+    ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+    CyclicBarrier start = new CyclicBarrier(pThreads + 1);
+    long[][] samples = new long[pThreads][];
+    int[] sampleCounts = new int[pThreads];
+    long[] operations = new long[pThreads];
+    long[] blocked = new long[pThreads];
+    long[] waited = new long[pThreads];
+    List<Thread> workers = new ArrayList<>();
+    int total = globalWeight + localWeight + serviceWeight;
+    Glue glue = Glue.instance();
+
+    for (int t = 0; t < pThreads; t++) {
+      int index = t;
+      Thread worker = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] own = new long[MAX_SAMPLES / pThreads];
+        long count = 0;
+        try {
+          start.await();
+          //Waiting for start is not counted
+          ThreadInfo before = mxBean.getThreadInfo(Thread.currentThread().getId());
+          long end = System.currentTimeMillis() + pDuration;
+          while (System.currentTimeMillis() < end) {
+            int pick = random.nextInt(total);
+            long begin = System.nanoTime();
+            Object result;
+            if (pick < globalWeight) {
+              result = glue.resolve(globals.get(random.nextInt(globals.size())));
+            } else if (pick < globalWeight + localWeight) {
+              result = glue.resolve(locals.get(random.nextInt(locals.size())));
+            } else {
+              result = services.get(serviceKeys[random.nextInt(SERVICES)]);
+            }
+            long time = System.nanoTime() - begin;
+            if (result == null) {
+              throw new IllegalStateException("Resolved null");
+            }
+            //Reservoir sampling keeps latency distribution of whole run in fixed memory
+            if (count < own.length) {
+              own[(int) count] = time;
+            } else {
+              long slot = random.nextLong(count + 1);
+              if (slot < own.length) {
+                own[(int) slot] = time;
+              }
+            }
+            count++;
+          }
+          ThreadInfo after = mxBean.getThreadInfo(Thread.currentThread().getId());
+          blocked[index] = after.getBlockedTime() - before.getBlockedTime();
+          waited[index] = after.getWaitedTime() - before.getWaitedTime();
+        } catch (Exception ex) {
+          synchronized (violations) {
+            violations.add("Mix failed on " + Thread.currentThread().getName() + ":" + ex);
+          }
+        }
+        samples[index] = own;
+        sampleCounts[index] = (int) Math.min(count, own.length);
+        operations[index] = count;
+      }, "contention-" + t);
+      workers.add(worker);
+      worker.start();
+    }
+
+    start.await();
+
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    Result result = new Result();
+    result.operations = Arrays.stream(operations).sum();
+    result.latencies = new long[Arrays.stream(sampleCounts).sum()];
+
+    int offset = 0;
+
+    for (int t = 0; t < pThreads; t++) {
+      System.arraycopy(samples[t], 0, result.latencies, offset, sampleCounts[t]);
+      offset += sampleCounts[t];
+    }
+
+    Arrays.sort(result.latencies);
+
+    result.blocked = Arrays.stream(blocked).sum();
+    result.waited = Arrays.stream(waited).sum();
+
+    return result;
+  }
+
+  /**
+   * All threads resolve same fresh GLOBAL components at same time, each in its own order.
+   *
+   * @return Summary of check
+   */
+  private String firstCreation(int pThreads, int pCount) throws Exception {
+
+    int from = freshNext.getAndAdd(pCount);
+    List<String> paths = fresh.subList(from, from + pCount);
+    CyclicBarrier start = new CyclicBarrier(pThreads);
+    Object[][] seen = new Object[pThreads][pCount];
+    List<Thread> workers = new ArrayList<>();
+    Glue glue = Glue.instance();
+
+    for (int t = 0; t < pThreads; t++) {
+      int index = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < pCount; i++) {
+            //Threads walk paths from different starting points
+            int path = (i + index * pCount / pThreads) % pCount;
+            seen[index][path] = glue.resolve(paths.get(path));
+          }
+        } catch (Exception ex) {
+          synchronized (violations) {
+            violations.add("First creation failed on " + Thread.currentThread().getName() + ":" + ex);
+          }
+        }
+      }, "first-creation-" + t);
+      workers.add(worker);
+      worker.start();
+    }
+
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    int broken = 0;
+
+    for (int i = 0; i < pCount; i++) {
+      Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (int t = 0; t < pThreads; t++) {
+        instances.add(seen[t][i]);
+        if (seen[t][i] instanceof SyntheticComponent && !((SyntheticComponent) seen[t][i]).isStarted()) {
+          broken++;
+          violations.add("Threads=" + pThreads + " " + paths.get(i) + ":Observed before start service method was called");
+        }
+      }
+      if (instances.size() != 1 || instances.contains(null)) {
+        broken++;
+        violations.add("Threads=" + pThreads + " " + paths.get(i) + ":" + instances.size() + " instances observed");
+      }
+    }
+
+    return broken == 0 ? pCount + " ok" : broken + " broken";
+  }
+
+  private static List<Integer> parseInts(String pValue) {
+    return Arrays
+            .stream(pValue.split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+  }
+
+  private static class Result {
+
+    private long operations;
+    private long[] latencies;
+    private long blocked;
+    private long waited;
+
+    private long percentile(double pPercentile) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      return latencies[(int) Math.min(latencies.length - 1, Math.round(pPercentile * (latencies.length - 1)))];
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+package vinscom.ioc;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vinscom.ioc.common.FileLoader;
+import vinscom.ioc.common.JsonLoader;
+import vinscom.ioc.common.LayerIndex;
+
+/**
+ * Cost of finding file and merged JSON of component property, with and without index of layers.
+ *
+ * @author vinay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+
+  private static final String COMPONENT = "/vinscom/ioc/test/component/PropertiesComponent";
+  private static final String FILE = "testconfig.json";
+
+  @Param({"false", "true"})
+  public boolean indexed;
+
+  @Setup
+  public void setup() throws IOException {
+    //Repository publishes index only with reload, so it is built here, same way repository builds it
+    ComponentRepository.whenReady().join();
+    LayerIndex index = indexed ? buildIndex(FileLoader.layers) : null;
+    FileLoader.index = index;
+    JsonLoader.index = index;
+  }
+
+  private static LayerIndex buildIndex(List<String> pLayers) throws IOException {
+
+    LayerIndex.Builder builder = new LayerIndex.Builder(pLayers);
+
+    for (String layer : pLayers) {
+      Path root = Paths.get(layer);
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttributes) {
+          builder.add(root, pFile, pAttributes);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+
+    return builder.build();
+  }
+
+  @Benchmark
+  public Object file() {
+    return FileLoader.load(COMPONENT, FILE);
+  }
+
+  @Benchmark
+  public Object json() {
+    return JsonLoader.load(COMPONENT, FILE);
+  }
+
+}
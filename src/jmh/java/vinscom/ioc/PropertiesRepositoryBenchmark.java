@@ -0,0 +1,74 @@
+package vinscom.ioc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to load configuration with {@link PropertiesRepository#init()}, across number of layers, number of components
+ * and length of <code>$basedOn</code> chains. Layers are generated once per trial with {@link ConfigGenerator}.
+ *
+ * @author vinay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PropertiesRepositoryBenchmark {
+
+  @Param({"1", "4"})
+  public int layers;
+
+  @Param({"100", "1000"})
+  public int components;
+
+  @Param({"0", "4"})
+  public int baseDepth;
+
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  private Path root;
+  private List<String> layerDirectories;
+
+  @Setup
+  public void setup() throws IOException {
+    root = Files.createTempDirectory("glue-benchmark");
+    ConfigGenerator generator = new ConfigGenerator();
+    generator.setLayers(layers);
+    generator.setComponents(components);
+    generator.setBaseDepth(baseDepth);
+    layerDirectories = generator.generate(root);
+  }
+
+  @TearDown
+  public void tearDown() {
+    ConfigGenerator.delete(root);
+  }
+
+  @Benchmark
+  public Object init() {
+    PropertiesRepository repository = new PropertiesRepository();
+    repository.setLayers(layerDirectories);
+    repository.setLazy(lazy);
+    repository.init();
+    return repository.getPropertiesCache().get(ConfigGenerator.getPath(components - 1));
+  }
+
+}
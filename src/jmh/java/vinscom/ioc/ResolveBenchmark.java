@@ -0,0 +1,62 @@
+package vinscom.ioc;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ComponentRepository#resolve(java.lang.String)} for GLOBAL component already created, and for
+ * LOCAL components created on every call.
+ *
+ * @author vinay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveBenchmark {
+
+  private static final String GLOBAL = "/vinscom/ioc/test/component/GlobalObjectByDefault";
+  private static final String LOCAL = "/vinscom/ioc/test/component/LocalObject";
+  private static final String LOCAL_WITH_PROPERTIES = "/vinscom/ioc/test/component/PropertiesComponent";
+  private static final String LOCAL_WITH_REFERENCES = "/vinscom/ioc/test/component/RefPropertiesComponent";
+
+  private Glue glue;
+
+  @Setup
+  public void setup() {
+    glue = Glue.instance();
+    glue.resolve(GLOBAL);
+  }
+
+  @Benchmark
+  public Object globalHit() {
+    return glue.resolve(GLOBAL);
+  }
+
+  @Benchmark
+  public Object localCreation() {
+    return glue.resolve(LOCAL);
+  }
+
+  @Benchmark
+  public Object localWithProperties() {
+    return glue.resolve(LOCAL_WITH_PROPERTIES);
+  }
+
+  @Benchmark
+  public Object localWithReferences() {
+    return glue.resolve(LOCAL_WITH_REFERENCES);
+  }
+
+}
@@ -0,0 +1,161 @@
+package vinscom.ioc;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how boot scales with size of configuration. For every number of layers and components, configuration is
+ * written with {@link ConfigGenerator} and booted by {@link ScalingProbe} in a new JVM, so every boot starts cold.
+ *
+ * Growth between two sizes is reported as exponent <code>log(cost2 / cost1) / log(size2 / size1)</code>, 1 being
+ * linear. Harness exits with status 1 if boot time or allocation grows faster than <code>maxExponent</code>.
+ *
+ * Arguments are <code>key=value</code>, with comma separated list for <code>components</code> and
+ * <code>layers</code>, for example <code>components=1000,10000,100000 layers=2,20 baseDepth=2</code>.
+ *
+ * @author vinay
+ */
+public class ScalingHarness {
+
+  private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+  static {
+    DEFAULTS.put("components", "1000,10000");
+    DEFAULTS.put("layers", "2");
+    DEFAULTS.put("properties", "4");
+    DEFAULTS.put("mergeDensity", "0.1");
+    DEFAULTS.put("baseDepth", "2");
+    DEFAULTS.put("referenceFanOut", "2");
+    DEFAULTS.put("globalRatio", "0.5");
+    DEFAULTS.put("parallelism", "0");
+    DEFAULTS.put("heap", "2g");
+    DEFAULTS.put("maxExponent", "1.3");
+  }
+
+  public static void main(String[] pArgs) throws IOException, InterruptedException {
+
+    Map<String, String> args = new HashMap<>(DEFAULTS);
+
+    for (String arg : pArgs) {
+      String[] kv = arg.split("=", 2);
+      if (kv.length != 2 || !DEFAULTS.containsKey(kv[0])) {
+        throw new IllegalArgumentException("Unknown argument:" + arg + ", expected key=value with key one of " + DEFAULTS.keySet());
+      }
+      args.put(kv[0], kv[1]);
+    }
+
+    double maxExponent = Double.parseDouble(args.get("maxExponent"));
+    boolean superlinear = false;
+
+    System.out.println(String.format("%8s %10s %10s %10s %10s %12s %14s", "layers", "components", "load ms", "boot ms", "uptime ms", "peak heap MB", "allocated MB"));
+
+    for (int layers : parseInts(args.get("layers"))) {
+
+      List<long[]> results = new ArrayList<>();
+      List<Integer> sizes = parseInts(args.get("components"));
+
+      for (int components : sizes) {
+        ConfigGenerator generator = new ConfigGenerator();
+        generator.setLayers(layers);
+        generator.setComponents(components);
+        generator.setProperties(Integer.parseInt(args.get("properties")));
+        generator.setMergeDensity(Double.parseDouble(args.get("mergeDensity")));
+        generator.setBaseDepth(Integer.parseInt(args.get("baseDepth")));
+        generator.setReferenceFanOut(Integer.parseInt(args.get("referenceFanOut")));
+        generator.setGlobalRatio(Double.parseDouble(args.get("globalRatio")));
+        generator.setParallelism(Integer.parseInt(args.get("parallelism")));
+
+        long[] result = boot(generator, args.get("heap"));
+        results.add(result);
+
+        System.out.println(String.format("%8d %10d %10d %10d %10d %12d %14d", layers, components, result[0], result[1], result[2], result[3] >> 20, result[4] >> 20));
+      }
+
+      for (int i = 1; i < sizes.size(); i++) {
+        double time = exponent(sizes.get(i - 1), sizes.get(i), results.get(i - 1)[1], results.get(i)[1]);
+        double allocated = exponent(sizes.get(i - 1), sizes.get(i), results.get(i - 1)[4], results.get(i)[4]);
+        boolean failed = time > maxExponent || allocated > maxExponent;
+        superlinear |= failed;
+        System.out.println(String.format("layers=%d components %d -> %d: boot time exponent %.2f, allocation exponent %.2f%s",
+                layers, sizes.get(i - 1), sizes.get(i), time, allocated, failed ? " SUPERLINEAR" : ""));
+      }
+    }
+
+    if (superlinear) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * @return load ms, boot ms, JVM uptime ms, peak heap bytes, allocated bytes
+   */
+  private static long[] boot(ConfigGenerator pGenerator, String pHeap) throws IOException, InterruptedException {
+
+    Path root = Files.createTempDirectory("glue-scaling");
+
+    try {
+      List<String> layers = pGenerator.generate(root);
+
+      List<String> command = new ArrayList<>();
+      command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+      command.add("-Xmx" + pHeap);
+      command.add("-Dglue.layers=" + String.join(",", layers));
+      if (System.getProperty("log4j.configurationFile") != null) {
+        command.add("-Dlog4j.configurationFile=" + System.getProperty("log4j.configurationFile"));
+      }
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(ScalingProbe.class.getName());
+
+      Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      String result = null;
+      List<String> output = new ArrayList<>();
+
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.startsWith(ScalingProbe.RESULT + " ")) {
+            result = line;
+          } else if (output.size() < 50) {
+            output.add(line);
+          }
+        }
+      }
+
+      if (process.waitFor() != 0 || result == null) {
+        throw new IllegalStateException("Boot failed for " + pGenerator + ":\n" + String.join("\n", output));
+      }
+
+      return Arrays
+              .stream(result.split(" "))
+              .skip(1)
+              .mapToLong(Long::parseLong)
+              .toArray();
+    } finally {
+      ConfigGenerator.delete(root);
+    }
+  }
+
+  private static double exponent(long pSize1, long pSize2, long pCost1, long pCost2) {
+    return Math.log((double) Math.max(pCost2, 1) / Math.max(pCost1, 1)) / Math.log((double) pSize2 / pSize1);
+  }
+
+  private static List<Integer> parseInts(String pValue) {
+    return Arrays
+            .stream(pValue.split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,64 @@
+package vinscom.ioc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Boots configuration given by <code>glue.layers</code> in its own JVM, and prints time to load configuration, time
+ * to start <code>/Initial</code>, peak heap and bytes allocated by all threads alive at end.
+ *
+ * @author vinay
+ */
+public class ScalingProbe {
+
+  public static final String RESULT = "RESULT";
+
+  public static void main(String[] pArgs) {
+
+    long start = System.nanoTime();
+    ComponentRepository.whenReady().join();
+    long loaded = System.nanoTime();
+    Boot.main(pArgs);
+    long booted = System.nanoTime();
+
+    long peakHeap = 0;
+
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peakHeap += pool.getPeakUsage().getUsed();
+      }
+    }
+
+    System.out.println(RESULT
+            + " " + (loaded - start) / 1_000_000
+            + " " + (booted - start) / 1_000_000
+            + " " + ManagementFactory.getRuntimeMXBean().getUptime()
+            + " " + peakHeap
+            + " " + getAllocatedBytes());
+  }
+
+  /**
+   * @return Bytes allocated by threads alive now, or -1 if JVM can't tell
+   */
+  private static long getAllocatedBytes() {
+
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+
+    com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+    long result = 0;
+
+    for (long allocated : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      if (allocated > 0) {
+        result += allocated;
+      }
+    }
+
+    return result;
+  }
+
+}
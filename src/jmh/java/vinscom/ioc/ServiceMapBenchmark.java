@@ -0,0 +1,67 @@
+package vinscom.ioc;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import vinscom.ioc.component.ServiceMap;
+
+/**
+ * Lookup in resolved {@link ServiceMap} of 200 services by many threads, as done by request routing.
+ *
+ * @author vinay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMapBenchmark {
+
+  private static final int SERVICES = 200;
+
+  private ServiceMap services;
+  private String[] keys;
+
+  @Setup
+  public void setup() {
+    Map<String, String> map = new HashMap<>();
+    keys = new String[SERVICES];
+    for (int i = 0; i < SERVICES; i++) {
+      keys[i] = "handler" + i;
+      map.put(keys[i], "/vinscom/ioc/test/component/GlobalObjectByDefault");
+    }
+    services = new ServiceMap(map);
+    services.getServices();
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private int next;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object get(Cursor pCursor) {
+    return services.get(keys[pCursor.next++ % SERVICES]);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object get8Threads(Cursor pCursor) {
+    return services.get(keys[pCursor.next++ % SERVICES]);
+  }
+
+}
@@ -0,0 +1,161 @@
+package vinscom.ioc;
+
+import java.util.List;
+import vinscom.ioc.annotation.StartService;
+
+/**
+ * Component of configuration written by {@link ConfigGenerator}. Has {@value #PROPERTIES} string properties,
+ * {@value #LISTS} list properties merged across layers, {@value #REFERENCES} properties referring to
+ * <code>prop0</code> of other components, and one component reference.
+ *
+ * @author vinay
+ */
+public class SyntheticComponent {
+
+  public static final int PROPERTIES = 16;
+  public static final int LISTS = 4;
+  public static final int REFERENCES = 8;
+
+  private final String[] props = new String[PROPERTIES];
+  private final Object[] lists = new Object[LISTS];
+  private final String[] refs = new String[REFERENCES];
+  private Object peer;
+  private volatile boolean started;
+
+  @StartService
+  public void start() {
+    started = true;
+  }
+
+  /**
+   * @return true once start service method has been called, after all properties are set
+   */
+  public boolean isStarted() {
+    return started;
+  }
+
+  public Object getPeer() {
+    return peer;
+  }
+
+  public void setPeer(Object pPeer) {
+    this.peer = pPeer;
+  }
+
+  public String getProp0() {
+    return props[0];
+  }
+
+  public void setProp0(String pValue) {
+    props[0] = pValue;
+  }
+
+  public void setProp1(String pValue) {
+    props[1] = pValue;
+  }
+
+  public void setProp2(String pValue) {
+    props[2] = pValue;
+  }
+
+  public void setProp3(String pValue) {
+    props[3] = pValue;
+  }
+
+  public void setProp4(String pValue) {
+    props[4] = pValue;
+  }
+
+  public void setProp5(String pValue) {
+    props[5] = pValue;
+  }
+
+  public void setProp6(String pValue) {
+    props[6] = pValue;
+  }
+
+  public void setProp7(String pValue) {
+    props[7] = pValue;
+  }
+
+  public void setProp8(String pValue) {
+    props[8] = pValue;
+  }
+
+  public void setProp9(String pValue) {
+    props[9] = pValue;
+  }
+
+  public void setProp10(String pValue) {
+    props[10] = pValue;
+  }
+
+  public void setProp11(String pValue) {
+    props[11] = pValue;
+  }
+
+  public void setProp12(String pValue) {
+    props[12] = pValue;
+  }
+
+  public void setProp13(String pValue) {
+    props[13] = pValue;
+  }
+
+  public void setProp14(String pValue) {
+    props[14] = pValue;
+  }
+
+  public void setProp15(String pValue) {
+    props[15] = pValue;
+  }
+
+  public void setList0(List<String> pValue) {
+    lists[0] = pValue;
+  }
+
+  public void setList1(List<String> pValue) {
+    lists[1] = pValue;
+  }
+
+  public void setList2(List<String> pValue) {
+    lists[2] = pValue;
+  }
+
+  public void setList3(List<String> pValue) {
+    lists[3] = pValue;
+  }
+
+  public void setRef0(String pValue) {
+    refs[0] = pValue;
+  }
+
+  public void setRef1(String pValue) {
+    refs[1] = pValue;
+  }
+
+  public void setRef2(String pValue) {
+    refs[2] = pValue;
+  }
+
+  public void setRef3(String pValue) {
+    refs[3] = pValue;
+  }
+
+  public void setRef4(String pValue) {
+    refs[4] = pValue;
+  }
+
+  public void setRef5(String pValue) {
+    refs[5] = pValue;
+  }
+
+  public void setRef6(String pValue) {
+    refs[6] = pValue;
+  }
+
+  public void setRef7(String pValue) {
+    refs[7] = pValue;
+  }
+
+}
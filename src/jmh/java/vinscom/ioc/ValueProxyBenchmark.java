@@ -0,0 +1,115 @@
+package vinscom.ioc;
+
+import io.vertx.core.json.JsonObject;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+import vinscom.ioc.test.component.EnumTestValues;
+
+/**
+ * Cost of converting property value of every supported type, as done for every new instance of component.
+ *
+ * @author vinay
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueProxyBenchmark {
+
+  private static final String COMPONENT = "/vinscom/ioc/test/component/PropertiesComponent";
+
+  @Param({"String", "Array", "List", "Map", "Set", "Enum", "boolean", "int", "long", "File", "JsonObject", "Logger"})
+  public String type;
+
+  private ValueProxy template;
+
+  @Setup
+  public void setup() {
+
+    Class<?> targetClass;
+    String value;
+
+    switch (type) {
+      case "String":
+        targetClass = String.class;
+        value = "TestString";
+        break;
+      case "Array":
+        targetClass = String[].class;
+        value = "a,b,c";
+        break;
+      case "List":
+        targetClass = List.class;
+        value = "a,b,c";
+        break;
+      case "Map":
+        targetClass = Map.class;
+        value = "a=b,c=d,e=f";
+        break;
+      case "Set":
+        targetClass = Set.class;
+        value = "a,b,b,c";
+        break;
+      case "Enum":
+        targetClass = EnumTestValues.class;
+        value = "TWO";
+        break;
+      case "boolean":
+        targetClass = boolean.class;
+        value = "true";
+        break;
+      case "int":
+        targetClass = int.class;
+        value = "2";
+        break;
+      case "long":
+        targetClass = long.class;
+        value = "2";
+        break;
+      case "File":
+        targetClass = File.class;
+        value = "testconfig.json";
+        break;
+      case "JsonObject":
+        targetClass = JsonObject.class;
+        value = "testconfig.json";
+        break;
+      case "Logger":
+        targetClass = Logger.class;
+        value = "true";
+        break;
+      default:
+        throw new IllegalArgumentException(type);
+    }
+
+    template = new ValueProxy(targetClass, Collections.singletonList(new ValueWithModifier(value, PropertyValueModifier.NONE)), COMPONENT);
+  }
+
+  @Benchmark
+  public Object convert() {
+    ValueProxy value = new ValueProxy(template);
+    value.process();
+    return value.getValue();
+  }
+
+}
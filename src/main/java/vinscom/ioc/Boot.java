@@ -1,9 +1,11 @@
 package vinscom.ioc;
 
 import vinscom.ioc.common.Constant;
+import vinscom.ioc.trace.StartupTrace;
 
 public class Boot {
   public static void main(String[] pArgs) {
     Glue.instance().resolve(Constant.Component.Path.INITIAL);
+    StartupTrace.write();
   }
 }
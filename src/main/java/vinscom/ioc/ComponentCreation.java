@@ -0,0 +1,72 @@
+package vinscom.ioc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Creation of GLOBAL component in progress. Other threads asking for same component wait on it, instead of waiting on
+ * repository wide lock.
+ *
+ * @author vinay
+ */
+public class ComponentCreation {
+
+  private final String path;
+  private final Thread owner;
+  private final CompletableFuture<Object> future = new CompletableFuture<>();
+  private volatile Object instance;
+
+  public ComponentCreation(String pPath, Thread pOwner) {
+    this.path = pPath;
+    this.owner = pOwner;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public Thread getOwner() {
+    return owner;
+  }
+
+  /**
+   * @return Instance under construction. Its properties may not be set yet.
+   */
+  public Object getInstance() {
+    return instance;
+  }
+
+  public void setInstance(Object pInstance) {
+    this.instance = pInstance;
+  }
+
+  public void complete(Object pInstance) {
+    future.complete(pInstance);
+  }
+
+  public void fail(Throwable pError) {
+    future.completeExceptionally(pError);
+  }
+
+  /**
+   * Wait till component is fully initialised.
+   *
+   * @return Started component
+   */
+  public Object await() {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return path + "[" + owner.getName() + "]";
+  }
+
+}
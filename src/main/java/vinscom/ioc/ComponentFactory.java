@@ -0,0 +1,148 @@
+package vinscom.ioc;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import vinscom.ioc.common.ValueWithModifier;
+
+/**
+ * Creates component and sets its properties with plain method calls. Sub classes are generated by
+ * {@link FactoryGenerator} from configuration layers at build time, one per component.
+ *
+ * Factory is used only while merged properties of component have same fingerprint as properties it was generated
+ * from. Component overridden by layer at runtime, or changed by reload, is created with reflection.
+ *
+ * @author vinay
+ */
+public abstract class ComponentFactory {
+
+  private final String path;
+  private final String fingerprint;
+  private final Class<?> type;
+  private final List<String> properties;
+  private final String[] setters;
+  private final Class<?>[] propertyTypes;
+  private final String startMethod;
+
+  /**
+   * @param pPath Path of component
+   * @param pFingerprint Fingerprint of merged properties factory is generated from
+   * @param pType Class of component
+   * @param pProperties Names of properties, in order of their index
+   * @param pSetters Names of setters, in order of property index
+   * @param pPropertyTypes Class of setter argument, in order of property index
+   * @param pStartMethod Name of start service method, or null
+   */
+  protected ComponentFactory(String pPath, String pFingerprint, Class<?> pType, String[] pProperties, String[] pSetters,
+          Class<?>[] pPropertyTypes, String pStartMethod) {
+    this.path = pPath;
+    this.fingerprint = pFingerprint;
+    this.type = pType;
+    this.properties = Collections.unmodifiableList(Arrays.asList(pProperties));
+    this.setters = pSetters;
+    this.propertyTypes = pPropertyTypes;
+    this.startMethod = pStartMethod;
+  }
+
+  /**
+   * @return New instance, without any property set
+   */
+  public abstract Object newInstance();
+
+  /**
+   * @param pInstance Instance created by {@link #newInstance()}
+   * @param pProperty Index of property
+   * @param pValue Converted value
+   * @throws Exception Thrown by setter
+   */
+  public abstract void set(Object pInstance, int pProperty, Object pValue) throws Exception;
+
+  /**
+   * Call start service method. Does nothing if component has none.
+   *
+   * @param pInstance
+   * @throws Exception Thrown by start service method
+   */
+  public void start(Object pInstance) throws Exception {
+  }
+
+  /**
+   * @param pProperties Merged properties of component
+   * @return Fingerprint of properties, independent of order of property names
+   */
+  public static String fingerprint(ListMultimap<String, ValueWithModifier> pProperties) {
+
+    List<Map.Entry<String, Collection<ValueWithModifier>>> entries = new ArrayList<>(pProperties.asMap().entrySet());
+    entries.sort(Map.Entry.comparingByKey());
+
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+
+    for (Map.Entry<String, Collection<ValueWithModifier>> entry : entries) {
+      hasher.putString(entry.getKey(), StandardCharsets.UTF_8).putChar('\n');
+      for (ValueWithModifier value : entry.getValue()) {
+        hasher
+                .putString(String.valueOf(value.getPropertyValueModifier()), StandardCharsets.UTF_8)
+                .putChar('=')
+                .putString(String.valueOf(value.getValue()), StandardCharsets.UTF_8)
+                .putChar('\n');
+      }
+    }
+
+    return hasher.hash().toString();
+  }
+
+  /**
+   * @param pProperties Merged properties of component
+   * @return true if factory is generated from same properties
+   */
+  public boolean matches(ListMultimap<String, ValueWithModifier> pProperties) {
+    return fingerprint.equals(fingerprint(pProperties));
+  }
+
+  /**
+   * @param pProperty Name of property
+   * @return Index of property, or -1 if factory has no such property
+   */
+  public int indexOf(String pProperty) {
+    return properties.indexOf(pProperty);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  public List<String> getProperties() {
+    return properties;
+  }
+
+  public String getSetter(int pProperty) {
+    return setters[pProperty];
+  }
+
+  public Class<?> getPropertyType(int pProperty) {
+    return propertyTypes[pProperty];
+  }
+
+  /**
+   * @return Name of start service method, or null
+   */
+  public String getStartMethod() {
+    return startMethod;
+  }
+
+}
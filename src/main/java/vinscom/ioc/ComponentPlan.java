@@ -0,0 +1,189 @@
+package vinscom.ioc;
+
+import com.google.common.collect.ListMultimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import vinscom.ioc.common.ClassMetadata;
+import vinscom.ioc.common.Constant;
+import vinscom.ioc.common.MethodInvoker;
+import vinscom.ioc.common.Util;
+import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.converter.ConverterRegistry;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Immutable recipe to create component. Compiled once per component path from its merged properties, and replayed for
+ * every new instance. If generated {@link ComponentFactory} of component matches its properties, instance is created
+ * and properties are set through factory, without reflection.
+ *
+ * @author vinay
+ */
+public class ComponentPlan {
+
+  private final String path;
+  private final ListMultimap<String, ValueWithModifier> properties;
+  private final ComponentFactory factory;
+  private final Class<?> type;
+  private final MethodInvoker startInvoker;
+  private ClassMetadata metadata;
+  private final ComponentScopeType scope;
+  private final List<PropertyPlan> propertyPlans;
+  private final Set<String> dependencies;
+
+  private ComponentPlan(String pPath, ListMultimap<String, ValueWithModifier> pProperties, ConverterRegistry pConverters, boolean pShareValues,
+          ComponentFactory pFactory) {
+    this.path = pPath;
+    this.properties = pProperties;
+    this.factory = pFactory;
+
+    String clazz = Util.getLastValue(pProperties, Constant.Component.CLASS);
+
+    if (clazz == null) {
+      throw new RuntimeException("Component[" + pPath + "]:No class defined");
+    }
+
+    if (pFactory == null) {
+      this.metadata = ClassMetadata.forName(clazz);
+      this.type = metadata.getType();
+      this.startInvoker = metadata.getStartInvoker();
+    } else {
+      this.type = pFactory.getType();
+      this.startInvoker = pFactory.getStartMethod() == null ? null : FactoryInvoker.start(pFactory);
+    }
+
+    this.scope = ComponentScopeType.valueOf(Util.getLastValue(pProperties, Constant.Component.SCOPE, ComponentScopeType.GLOBAL.toString()));
+
+    List<PropertyPlan> plans = new ArrayList<>();
+    Set<String> references = new LinkedHashSet<>();
+
+    for (Map.Entry<String, Collection<ValueWithModifier>> entry : pProperties.asMap().entrySet()) {
+
+      String name = entry.getKey();
+
+      if (Constant.Component.CLASS.equals(name) || Constant.Component.SCOPE.equals(name) || Constant.Component.RELOAD.equals(name)) {
+        continue;
+      }
+
+      int index = pFactory == null ? -1 : pFactory.indexOf(name);
+      MethodInvoker setter = index < 0 ? getMetadata().getSetterInvoker(name) : FactoryInvoker.setter(pFactory, index);
+
+      if (setter == null) {
+        throw new RuntimeException("Component[" + pPath + "]:No setter found for property:" + name);
+      }
+
+      Class<?> argument = index < 0 ? getMetadata().getSetterArgumentClass(name) : pFactory.getPropertyType(index);
+      ValueProxy value = new ValueProxy(argument, entry.getValue(), pPath, pConverters);
+      references.addAll(value.getComponentReferences());
+      plans.add(new PropertyPlan(name, setter, value, pShareValues));
+    }
+
+    this.propertyPlans = Collections.unmodifiableList(plans);
+    this.dependencies = Collections.unmodifiableSet(references);
+  }
+
+  public static ComponentPlan compile(String pPath, ListMultimap<String, ValueWithModifier> pProperties) {
+    return compile(pPath, pProperties, ConverterRegistry.getDefault(), false);
+  }
+
+  /**
+   * @param pPath
+   * @param pProperties
+   * @param pConverters
+   * @param pShareValues If true, values which converter can share, such as strings, numbers and immutable collections,
+   * are converted once and given to every instance
+   * @return Plan
+   */
+  public static ComponentPlan compile(String pPath, ListMultimap<String, ValueWithModifier> pProperties, ConverterRegistry pConverters, boolean pShareValues) {
+
+    return compile(pPath, pProperties, pConverters, pShareValues, null);
+  }
+
+  /**
+   * @param pPath
+   * @param pProperties
+   * @param pConverters
+   * @param pShareValues
+   * @param pFactory Generated factory of component, or null. Factory is not used if it was generated from other
+   * properties.
+   * @return Plan
+   */
+  public static ComponentPlan compile(String pPath, ListMultimap<String, ValueWithModifier> pProperties, ConverterRegistry pConverters, boolean pShareValues,
+          ComponentFactory pFactory) {
+
+    if (pProperties == null) {
+      throw new RuntimeException("Component[" + pPath + "]:Not found in any layer");
+    }
+
+    return new ComponentPlan(pPath, pProperties, pConverters, pShareValues, pFactory != null && pFactory.matches(pProperties) ? pFactory : null);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return Properties plan is compiled from. Plan is stale once repository returns different properties for path.
+   */
+  public ListMultimap<String, ValueWithModifier> getProperties() {
+    return properties;
+  }
+
+  /**
+   * @return Reflective information of class. Plan using generated factory looks it up only when asked.
+   */
+  public ClassMetadata getMetadata() {
+    if (metadata == null) {
+      metadata = ClassMetadata.of(type);
+    }
+    return metadata;
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * @return Generated factory creating component, or null if component is created with reflection
+   */
+  public ComponentFactory getFactory() {
+    return factory;
+  }
+
+  /**
+   * @return New instance, without any property set
+   */
+  public Object newInstance() {
+    return factory == null ? getMetadata().newInstance() : factory.newInstance();
+  }
+
+  public ComponentScopeType getScope() {
+    return scope;
+  }
+
+  public List<PropertyPlan> getPropertyPlans() {
+    return propertyPlans;
+  }
+
+  public MethodInvoker getStartInvoker() {
+    return startInvoker;
+  }
+
+  /**
+   * @return Paths of components this component refers to directly through its properties, not members of ServiceMap
+   * or ServiceArray
+   */
+  public Set<String> getDependencies() {
+    return dependencies;
+  }
+
+  @Override
+  public String toString() {
+    return path + ":" + type.getName() + ":" + scope;
+  }
+
+}
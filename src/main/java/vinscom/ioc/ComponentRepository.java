@@ -1,75 +1,401 @@
 package vinscom.ioc;
 
 import com.google.common.collect.ListMultimap;
-import vinscom.ioc.common.PropertyContext;
-import vinscom.ioc.common.Tuple;
 import vinscom.ioc.common.Constant;
+import vinscom.ioc.common.FileLoader;
+import vinscom.ioc.common.JsonLoader;
+import vinscom.ioc.common.LayerIndex;
+import vinscom.ioc.common.MethodInvoker;
+import vinscom.ioc.common.PropertyContext;
 import vinscom.ioc.common.Util;
 import vinscom.ioc.enumeration.ComponentScopeType;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import vinscom.ioc.annotation.StartService;
 import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.component.ServiceArray;
+import vinscom.ioc.component.ServiceMap;
+import vinscom.ioc.converter.ConverterRegistry;
+import vinscom.ioc.trace.FlightEvents;
+import vinscom.ioc.trace.RepositoryMetrics;
+import vinscom.ioc.trace.StartupTrace;
 
 public class ComponentRepository implements Glue {
 
   private static final PropertiesRepository mPropertiesRepository;
   private static final Map<String, Object> mSingletonRepository;
+  private static final Map<String, ComponentPlan> mComponentPlans;
+  private static final Map<String, ComponentCreation> mInFlightCreations;
+  private static final Map<Thread, ComponentCreation> mWaitingThreads;
+  private static final Map<Thread, Thread> mJoiningThreads;
+  private static final ThreadLocal<Deque<ComponentPlan>> mCreationPath;
+  private static final boolean mShareValues;
+  private static final boolean mReferenceSnapshot;
+  private static final boolean mReloadInject;
+  private static final AtomicLong mReferenceEpoch;
+  private static final boolean mEagerServices;
+  private static final FactoryIndex mFactories;
 
   static {
     mSingletonRepository = new ConcurrentHashMap<>();
+    mComponentPlans = new ConcurrentHashMap<>();
+    mInFlightCreations = new ConcurrentHashMap<>();
+    mWaitingThreads = new ConcurrentHashMap<>();
+    mJoiningThreads = new ConcurrentHashMap<>();
+    mCreationPath = ThreadLocal.withInitial(ArrayDeque::new);
+    mShareValues = Boolean.getBoolean(Constant.SystemProperties.SHARE_VALUES);
+    mReferenceSnapshot = Boolean.getBoolean(Constant.SystemProperties.REFERENCE_SNAPSHOT);
+    mReferenceEpoch = new AtomicLong();
+    mReloadInject = Boolean.getBoolean(Constant.SystemProperties.RELOAD_INJECT);
+    mEagerServices = Boolean.getBoolean(Constant.SystemProperties.EAGER_SERVICES);
+    mFactories = FactoryIndex.load();
     mPropertiesRepository = new PropertiesRepository();
     mPropertiesRepository.setLayers(Util.getSystemLayers());
-    mPropertiesRepository.init();
+    if (System.getProperty(Constant.SystemProperties.SNAPSHOT) != null) {
+      mPropertiesRepository.setSnapshotFile(Paths.get(System.getProperty(Constant.SystemProperties.SNAPSHOT)));
+    }
+    mPropertiesRepository.setLazy(Boolean.getBoolean(Constant.SystemProperties.LAZY_INIT));
+    mPropertiesRepository.setReload(Boolean.getBoolean(Constant.SystemProperties.RELOAD));
+    mPropertiesRepository.addLayerIndexListener((index) -> publishLayerIndex());
+    mPropertiesRepository.addReloadListener((paths) -> instance().reinject(paths));
+    if (Boolean.getBoolean(Constant.SystemProperties.BACKGROUND_INIT)) {
+      mPropertiesRepository.initAsync();
+    } else {
+      mPropertiesRepository.init();
+    }
+    if (mPropertiesRepository.isReload()) {
+      mPropertiesRepository.whenReady().thenRun(ComponentRepository::publishLayerIndex);
+    }
+  }
+
+  /**
+   * Let file and JSON properties be found from index of layers, instead of checking every layer for file. Index is used
+   * only with reload, as only watcher keeps it up to date with files edited or added while running.
+   */
+  private static void publishLayerIndex() {
+    LayerIndex index = mPropertiesRepository.getLayerIndex();
+    FileLoader.index = index;
+    JsonLoader.index = index;
   }
 
   protected Logger logger = LogManager.getLogger(ComponentRepository.class.getCanonicalName());
 
-  protected synchronized Object resolve(String pPath, ListMultimap<String, ValueWithModifier> pProperties) {
+  protected Object resolve(String pPath, ListMultimap<String, ValueWithModifier> pProperties) {
+
+    Object event = FlightEvents.beginResolve();
+
+    try {
+      return resolve(pPath, pProperties, event);
+    } catch (RuntimeException | Error ex) {
+      FlightEvents.endResolve(event, pPath, null, null, false);
+      throw ex;
+    }
+  }
+
+  /**
+   * @param pPath
+   * @param pProperties
+   * @param pEvent Resolve event begun by entry point, ended once component is returned. Entry point ends it if resolution
+   * fails.
+   * @return Component
+   */
+  private Object resolve(String pPath, ListMultimap<String, ValueWithModifier> pProperties, Object pEvent) {
+
+    Object singleton = mSingletonRepository.get(pPath);
+
+    if (singleton != null) {
+      FlightEvents.endResolve(pEvent, pPath, singleton, ComponentScopeType.GLOBAL, false);
+      RepositoryMetrics.hit(pPath);
+      return singleton;
+    }
+
+    String parent = getTriggeringComponent(pPath);
+    long trace = StartupTrace.begin();
 
-    ArrayDeque<PropertyContext> propertyStack = new ArrayDeque<>();
     logger.debug(() -> "Component[" + pPath + "]:Loading");
-    Tuple<Boolean, Object> instance = getInstance(pPath, pProperties);
+    ComponentPlan plan = getPlan(pPath, pProperties);
+    StartupTrace.end(StartupTrace.PLAN, pPath, parent, trace);
 
-    boolean isNewInstance = instance.value1;
-    Object objInstance = instance.value2;
+    logger.debug(() -> "Component[" + pPath + "]:Class=" + plan.getType().getName());
+    logger.debug(() -> "Component[" + pPath + "]:Scope=" + plan.getScope());
+    RepositoryMetrics.miss(pPath, plan.getScope());
 
-    logger.debug(() -> "Component[" + pPath + "]:Got instance isNewInstance[" + isNewInstance + "]");
+    try {
+      if (ComponentScopeType.GLOBAL == plan.getScope()) {
+        return resolveSingleton(plan, pEvent);
+      }
+
+      return createInstance(plan, null, pEvent);
+    } finally {
+      StartupTrace.end(StartupTrace.RESOLVE, pPath, parent, trace);
+    }
+  }
+
+  /**
+   * @param pPath
+   * @return Component whose creation on current thread asked for given component, or null
+   */
+  protected String getTriggeringComponent(String pPath) {
 
-    if (!isNewInstance) {
-      return objInstance;
+    if (!StartupTrace.isRecording()) {
+      return null;
     }
 
-    logger.debug(() -> "Component[" + pPath + "]:Loading properties");
-    loadPropertiesInStack(objInstance, pProperties, pPath, propertyStack);
-    processPropertyStack(propertyStack);
+    for (ComponentPlan plan : mCreationPath.get()) {
+      if (!plan.getPath().equals(pPath)) {
+        return plan.getPath();
+      }
+    }
 
-    logger.debug(() -> "Component[" + pPath + "]:Loading Finished");
-    return objInstance;
+    return null;
   }
 
-  protected void processPropertyStack(Deque<PropertyContext> pPropertyStack) {
+  /**
+   * Returns singleton, creating it if required. Only one thread creates a singleton, others asking for same singleton
+   * wait for it to be started. Singleton is published only after its start service method has returned. Singletons
+   * created by different threads and referring to each other fail with cyclic reference error, instead of waiting
+   * forever.
+   *
+   * @param pPlan
+   * @param pEvent Resolve event, or null
+   * @return Started singleton
+   */
+  protected Object resolveSingleton(ComponentPlan pPlan, Object pEvent) {
+
+    String path = pPlan.getPath();
+    ComponentCreation creation = new ComponentCreation(path, Thread.currentThread());
+    ComponentCreation inFlight = mInFlightCreations.putIfAbsent(path, creation);
+
+    if (inFlight != null) {
+      return awaitCreation(inFlight, pEvent);
+    }
+
+    try {
+      Object instance = mSingletonRepository.get(path);
+
+      if (instance == null) {
+        instance = createInstance(pPlan, creation, pEvent);
+        logger.debug(() -> "Component[" + path + "]:Adding instance to singleton repository");
+        mSingletonRepository.put(path, instance);
+      } else {
+        FlightEvents.endResolve(pEvent, path, instance, ComponentScopeType.GLOBAL, false);
+      }
+
+      creation.complete(instance);
+      return instance;
+    } catch (RuntimeException | Error ex) {
+      creation.fail(ex);
+      throw ex;
+    } finally {
+      mInFlightCreations.remove(path, creation);
+    }
+  }
+
+  protected Object awaitCreation(ComponentCreation pCreation, Object pEvent) {
+
+    Thread current = Thread.currentThread();
+
+    if (pCreation.getOwner() == current) {
+      logger.debug(() -> "Component[" + pCreation.getPath() + "]:Cyclic reference, using instance under construction");
+      FlightEvents.endResolve(pEvent, pCreation.getPath(), pCreation.getInstance(), ComponentScopeType.GLOBAL, false);
+      return pCreation.getInstance();
+    }
+
+    mWaitingThreads.put(current, pCreation);
+
+    try {
+      if (isDeadlocked(current, pCreation)) {
+        throw new RuntimeException("Component[" + pCreation.getPath() + "]:Cyclic reference across threads:" + pCreation);
+      }
+      logger.debug(() -> "Component[" + pCreation.getPath() + "]:Waiting for creation by " + pCreation.getOwner().getName());
+      long trace = StartupTrace.begin();
+      long start = RepositoryMetrics.begin();
+      try {
+        Object instance = pCreation.await();
+        FlightEvents.endResolve(pEvent, pCreation.getPath(), instance, ComponentScopeType.GLOBAL, false);
+        return instance;
+      } finally {
+        RepositoryMetrics.waitedForCreation(pCreation.getPath(), start);
+        StartupTrace.end(StartupTrace.AWAIT, pCreation.getPath(), getTriggeringComponent(pCreation.getPath()), trace);
+      }
+    } finally {
+      mWaitingThreads.remove(current);
+    }
+  }
+
+  /**
+   * Follows threads waiting for each other's creation, and threads waiting for components resolved for them by
+   * {@link #resolveFor(Thread, String)}. If they come back to current thread, components refer each other and waiting
+   * would never finish.
+   *
+   * @param pCurrent
+   * @param pCreation Creation current thread wants to wait for
+   * @return true if waiting for creation would deadlock
+   */
+  protected boolean isDeadlocked(Thread pCurrent, ComponentCreation pCreation) {
+
+    Set<Thread> visited = new HashSet<>();
+    Deque<Thread> pending = new ArrayDeque<>();
+    pending.push(pCreation.getOwner());
+
+    while (!pending.isEmpty()) {
+      Thread thread = pending.pop();
+      if (thread == pCurrent) {
+        return true;
+      }
+      if (!visited.add(thread)) {
+        continue;
+      }
+      ComponentCreation creation = mWaitingThreads.get(thread);
+      if (creation != null) {
+        pending.push(creation.getOwner());
+      }
+      mJoiningThreads.forEach((worker, joiner) -> {
+        if (joiner == thread) {
+          pending.push(worker);
+        }
+      });
+    }
+
+    return false;
+  }
+
+  /**
+   * Resolve component on behalf of thread which waits for it, such as thread starting components in parallel from
+   * start service method of its own component. Reference back to component under construction by waiting thread fails
+   * with cyclic reference error, instead of deadlocking.
+   *
+   * @param pJoiner Thread waiting for component
+   * @param pPath
+   * @return Component
+   */
+  protected Object resolveFor(Thread pJoiner, String pPath) {
+
+    Thread current = Thread.currentThread();
+
+    if (current == pJoiner) {
+      return resolve(pPath);
+    }
+
+    Thread previous = mJoiningThreads.put(current, pJoiner);
+
+    try {
+      return resolve(pPath);
+    } finally {
+      if (previous == null) {
+        mJoiningThreads.remove(current);
+      } else {
+        mJoiningThreads.put(current, previous);
+      }
+    }
+  }
+
+  /**
+   * Creates new instance and injects all its properties, including resolution of components it refers to.
+   *
+   * @param pPlan
+   * @param pCreation Creation to which instance is exposed before its properties are set, or null for LOCAL component
+   * @param pEvent Resolve event, or null
+   * @return Started instance
+   */
+  protected Object createInstance(ComponentPlan pPlan, ComponentCreation pCreation, Object pEvent) {
+
+    String path = pPlan.getPath();
+    Deque<ComponentPlan> creationPath = mCreationPath.get();
+
+    if (pCreation == null) {
+      checkLocalCycle(path, creationPath);
+    }
+
+    creationPath.push(pPlan);
+
     try {
-      while (!pPropertyStack.isEmpty()) {
-        PropertyContext propCtx = pPropertyStack.pop();
-        logger.debug(() -> "Component[" + propCtx.getComponentPath() + "]:Processing property " + propCtx.getMethod().getName());
-        processProperty(propCtx, pPropertyStack);
+      logger.debug(() -> "Component[" + path + "]:Creating instance");
+      long start = RepositoryMetrics.begin();
+      long trace = StartupTrace.begin();
+      Object instance = pPlan.newInstance();
+      StartupTrace.end(StartupTrace.CREATE, path, getTriggeringComponent(path), trace);
+
+      if (pCreation != null) {
+        pCreation.setInstance(instance);
+      }
+
+      ArrayDeque<PropertyContext> propertyStack = new ArrayDeque<>();
+      logger.debug(() -> "Component[" + path + "]:Loading properties");
+      loadPropertiesInStack(instance, pPlan, propertyStack);
+      processPropertyStack(propertyStack);
+
+      logger.debug(() -> "Component[" + path + "]:Loading Finished");
+      FlightEvents.endResolve(pEvent, path, instance, pPlan.getScope(), true);
+      RepositoryMetrics.created(path, pPlan.getScope(), start);
+      return instance;
+    } finally {
+      creationPath.pop();
+    }
+  }
+
+  /**
+   * LOCAL component referring to itself, directly or through other LOCAL components, would be created forever. Cycle
+   * through a GLOBAL component ends there, as GLOBAL component under construction is given to reference back to it.
+   *
+   * @param pPath LOCAL component about to be created
+   * @param pCreationPath Components being created by current thread, latest first
+   */
+  private void checkLocalCycle(String pPath, Deque<ComponentPlan> pCreationPath) {
+
+    List<String> cycle = new ArrayList<>();
+
+    for (ComponentPlan plan : pCreationPath) {
+      if (ComponentScopeType.GLOBAL == plan.getScope()) {
+        return;
+      }
+      cycle.add(plan.getPath());
+      if (plan.getPath().equals(pPath)) {
+        throw new RuntimeException("Component[" + pPath + "]:Cyclic reference between LOCAL components:" + cycle);
+      }
+    }
+
+  }
+
+  protected void processPropertyStack(Deque<PropertyContext> pPropertyStack) {
+    while (!pPropertyStack.isEmpty()) {
+      PropertyContext propCtx = pPropertyStack.pop();
+      logger.debug(() -> "Component[" + propCtx.getComponentPath() + "]:Processing property " + propCtx.getInvoker().getName());
+      boolean start = propCtx.getValue() == null;
+      Object event = start ? FlightEvents.beginStart() : FlightEvents.beginInject();
+      long trace = StartupTrace.begin();
+      try {
+        processProperty(propCtx);
+      } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+        throw new RuntimeException("Component[" + propCtx.getComponentPath() + "]:Failed to process property " + propCtx.getInvoker().getName(), ex);
+      } finally {
+        if (start) {
+          FlightEvents.endStart(event, propCtx.getComponentPath(), propCtx.getInvoker().getName());
+        } else {
+          FlightEvents.endInject(event, propCtx.getComponentPath(), propCtx.getInvoker().getName());
+        }
+      }
+      if (trace != 0) {
+        StartupTrace.end(start ? StartupTrace.START : StartupTrace.INJECT, propCtx.getInvoker().getName(),
+                propCtx.getComponentPath(), getTriggeringComponent(propCtx.getComponentPath()), trace);
       }
-    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-      java.util.logging.Logger.getLogger(ComponentRepository.class.getName()).log(Level.SEVERE, null, ex);
     }
   }
 
-  protected void processProperty(PropertyContext pPropCtx, Deque<PropertyContext> pPropertyStack) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+  protected void processProperty(PropertyContext pPropCtx) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
     ValueProxy v = pPropCtx.getValue();
 
@@ -77,100 +403,200 @@ public class ComponentRepository implements Glue {
 
       if (v.isDeferredValue() && v.getDeferredComponent() == null) {
         logger.debug(() -> "Component[" + pPropCtx.getComponentPath() + "]: Property referes to another component. Processing " + v.getDeferredComponentPath());
-        Tuple<Boolean, Object> instance = getInstance(v.getDeferredComponentPath(), getPropertiesCache().get(v.getDeferredComponentPath()));
-        v.setDeferredComponent(instance.value2);
-        pPropertyStack.push(pPropCtx);
-        if (instance.value1) {
-          loadPropertiesInStack(instance.value2, getPropertiesCache().get(v.getDeferredComponentPath()), v.getDeferredComponentPath(), pPropertyStack);
-        }
-        return;
+        long epoch = mReferenceEpoch.get();
+        Object component = resolve(v.getDeferredComponentPath());
+        boolean published = mReferenceSnapshot && mSingletonRepository.get(v.getDeferredComponentPath()) == component;
+        v.setDeferredComponent(component, published ? epoch : -1);
       }
 
       v.process();
-      logger.debug(() -> "Component[" + pPropCtx.getComponentPath() + "]: Property :" + pPropCtx.getMethod().getName() + ", Value derived :" + v.getValue());
-      pPropCtx.getMethod().invoke(pPropCtx.getInstance(), v.getValue());
+      logger.debug(() -> "Component[" + pPropCtx.getComponentPath() + "]: Property :" + pPropCtx.getInvoker().getName() + ", Value derived :" + v.getValue());
+
+      if (mEagerServices) {
+        resolveServices(v.getValue());
+      }
+
+      pPropCtx.getInvoker().invoke(pPropCtx.getInstance(), v.getValue());
 
     } else {
-      logger.debug(() -> "Component[" + pPropCtx.getComponentPath() + "]: Invoking Property without arguments :" + pPropCtx.getMethod().getName());
-      pPropCtx.getMethod().invoke(pPropCtx.getInstance());
+      logger.debug(() -> "Component[" + pPropCtx.getComponentPath() + "]: Invoking Property without arguments :" + pPropCtx.getInvoker().getName());
+      pPropCtx.getInvoker().invoke(pPropCtx.getInstance());
     }
 
   }
 
-  protected void loadPropertiesInStack(Object pInstance, ListMultimap<String, ValueWithModifier> pProperties, String pComponentPath, Deque<PropertyContext> pPropertyStack) {
+  /**
+   * Resolves members of ServiceMap and ServiceArray before they are injected, instead of on first access.
+   *
+   * @param pValue Value of property
+   */
+  protected void resolveServices(Object pValue) {
+    if (pValue instanceof ServiceMap) {
+      ((ServiceMap) pValue).getServices();
+    } else if (pValue instanceof ServiceArray) {
+      ((ServiceArray) pValue).getServices();
+    }
+  }
+
+  protected void loadPropertiesInStack(Object pInstance, ComponentPlan pPlan, Deque<PropertyContext> pPropertyStack) {
 
-    Method startupmethod = Util.getMethodWithAnnotation(pInstance.getClass(), StartService.class);
+    String componentPath = pPlan.getPath();
+    MethodInvoker startupmethod = pPlan.getStartInvoker();
 
     if (startupmethod != null) {
       PropertyContext propCtx = new PropertyContext();
       propCtx.setInstance(pInstance);
-      propCtx.setMethod(startupmethod);
+      propCtx.setInvoker(startupmethod);
       propCtx.setValue(null);
-      propCtx.setComponentPath(pComponentPath);
-      logger.debug(() -> "Component[" + pComponentPath + "]:Found start service method:" + propCtx.getMethod().getName());
+      propCtx.setComponentPath(componentPath);
+      logger.debug(() -> "Component[" + componentPath + "]:Found start service method:" + propCtx.getInvoker().getName());
       pPropertyStack.push(propCtx);
     }
 
-    pProperties
-            .asMap()
-            .entrySet()
-            .stream()
-            .filter((t) -> !(Constant.Component.CLASS.equals(t.getKey()) || Constant.Component.SCOPE.equals(t.getKey())))
-            .map((entry) -> {
-              PropertyContext propCtx = new PropertyContext();
-              propCtx.setInstance(pInstance);
-              propCtx.setMethod(Util.getMethod(pInstance.getClass(), Util.buildSetPropertyName((String) entry.getKey())));
-              ValueProxy v = new ValueProxy(Util.getMethodFirstArgumentClass(propCtx.getMethod()), entry.getValue(), pComponentPath);
-              propCtx.setValue(v);
-              propCtx.setComponentPath(pComponentPath);
-              return propCtx;
-            })
-            .forEachOrdered((propertyCtx) -> {
-              logger.debug(() -> "Component[" + pComponentPath + "]:Ready to process:" + propertyCtx.getMethod().getName() + ", Value=" + propertyCtx.getValue());
-              pPropertyStack.push(propertyCtx);
-            });
+    loadPropertyPlansInStack(pInstance, pPlan, pPropertyStack);
+
+  }
+
+  protected void loadPropertyPlansInStack(Object pInstance, ComponentPlan pPlan, Deque<PropertyContext> pPropertyStack) {
+
+    String componentPath = pPlan.getPath();
+
+    for (PropertyPlan propertyPlan : pPlan.getPropertyPlans()) {
+      PropertyContext propCtx = new PropertyContext();
+      propCtx.setInstance(pInstance);
+      propCtx.setInvoker(propertyPlan.getSetter());
+      propCtx.setValue(propertyPlan.newValue());
+      propCtx.setComponentPath(componentPath);
+      logger.debug(() -> "Component[" + componentPath + "]:Ready to process:" + propCtx.getInvoker().getName() + ", Value=" + propCtx.getValue());
+      pPropertyStack.push(propCtx);
+    }
 
   }
 
   /**
+   * Injects changed configuration again into singletons which allow it with <code>$reload=true</code>, if enabled with
+   * {@value Constant.SystemProperties#RELOAD_INJECT}. Start service method is not called again, and property removed
+   * from configuration keeps its previous value. Other singletons keep configuration they were created with till
+   * restart. Components created after reload always get new configuration.
    *
-   * @param pPath
-   * @param pProperties
-   * @return Returns Tuple where value1 = true if new Object is created. Or else false
+   * Setters are called on watcher thread while singleton is in use, without any lock shared with threads reading it.
+   * Component allowing reload must publish its properties safely itself, such as with volatile fields, or threads may
+   * see old, new or partly set configuration.
+   *
+   * @param pPaths Paths of reloaded components
    */
-  protected Tuple<Boolean, Object> getInstance(String pPath, ListMultimap<String, ValueWithModifier> pProperties) {
+  protected void reinject(Set<String> pPaths) {
 
-    String clazz = Util.getLastValue(pProperties, Constant.Component.CLASS);
-    ComponentScopeType scope = ComponentScopeType.valueOf(Util.getLastValue(pProperties, Constant.Component.SCOPE, ComponentScopeType.GLOBAL.toString()));
+    //Values read from GLOBAL components during and before injection are read again
+    mReferenceEpoch.incrementAndGet();
 
-    logger.debug(() -> "Component[" + pPath + "]:Class=" + clazz);
-    logger.debug(() -> "Component[" + pPath + "]:Scope=" + scope);
+    try {
+      reinjectAll(pPaths);
+    } finally {
+      mReferenceEpoch.incrementAndGet();
+    }
+
+  }
 
-    Tuple<Boolean, Object> result;
+  private void reinjectAll(Set<String> pPaths) {
 
-    synchronized (mSingletonRepository) {
+    for (String path : pPaths) {
 
-      if (ComponentScopeType.GLOBAL == scope && mSingletonRepository.containsKey(pPath)) {
-        logger.debug(() -> "Component[" + pPath + "]:Singleton already initialised");
-        result = new Tuple<>(false, mSingletonRepository.get(pPath));
-      } else {
-        logger.debug(() -> "Component[" + pPath + "]:Creating instance");
-        Object instance = Util.createInstance(clazz);
-        result = new Tuple<>(true, instance);
+      Object instance = mSingletonRepository.get(path);
+
+      if (instance == null) {
+        continue;
       }
 
-      if (ComponentScopeType.GLOBAL == scope) {
-        logger.debug(() -> "Component[" + pPath + "]:Adding instance to singleton repository");
-        mSingletonRepository.put(pPath, result.value2);
+      ListMultimap<String, ValueWithModifier> properties = getPropertiesCache().get(path);
+
+      if (!mReloadInject || properties == null || !Boolean.parseBoolean(Util.getLastValue(properties, Constant.Component.RELOAD))) {
+        logger.info(() -> "Component[" + path + "]:Configuration changed, restart required to apply it");
+        continue;
+      }
+
+      try {
+        ComponentPlan plan = getPlan(path, properties);
+
+        if (!plan.getType().isInstance(instance)) {
+          logger.warn(() -> "Component[" + path + "]:Class changed, restart required to apply it");
+          continue;
+        }
+
+        logger.info(() -> "Component[" + path + "]:Injecting changed configuration");
+        ArrayDeque<PropertyContext> propertyStack = new ArrayDeque<>();
+        loadPropertyPlansInStack(instance, plan, propertyStack);
+        processPropertyStack(propertyStack);
+      } catch (RuntimeException ex) {
+        logger.error(() -> "Component[" + path + "]:Failed to inject changed configuration", ex);
       }
     }
 
-    return result;
+  }
+
+  protected ComponentPlan getPlan(String pPath) {
+    return getPlan(pPath, getPropertiesCache().get(pPath));
+  }
+
+  /**
+   * Returns compiled plan of component, compiling it if properties of component are seen first time.
+   *
+   * @param pPath
+   * @param pProperties
+   * @return Plan compiled from given properties
+   */
+  protected ComponentPlan getPlan(String pPath, ListMultimap<String, ValueWithModifier> pProperties) {
+
+    ComponentPlan plan = mComponentPlans.get(pPath);
+
+    if (plan == null || plan.getProperties() != pProperties) {
+      logger.debug(() -> "Component[" + pPath + "]:Compiling plan");
+      ComponentFactory factory = getFactoryIndex().getFactory(pPath);
+      plan = ComponentPlan.compile(pPath, pProperties, getConverterRegistry(), mShareValues, factory);
+      if (factory != null && plan.getFactory() == null) {
+        logger.debug(() -> "Component[" + pPath + "]:Properties changed since factory was generated, using reflection");
+      }
+      mComponentPlans.put(pPath, plan);
+    }
+
+    return plan;
+  }
+
+  /**
+   * @return Converters used to compile plans. Override to use converters other than default registry.
+   */
+  protected ConverterRegistry getConverterRegistry() {
+    return ConverterRegistry.getDefault();
+  }
+
+  /**
+   * @return Generated factories used to compile plans. Override to use factories other than generated index.
+   */
+  protected FactoryIndex getFactoryIndex() {
+    return mFactories;
   }
 
   @Override
   public Object resolve(String pPath) {
-    return resolve(pPath, getPropertiesCache().get(pPath));
+    Object event = FlightEvents.beginResolve();
+    Object singleton = mSingletonRepository.get(pPath);
+
+    if (singleton != null) {
+      FlightEvents.endResolve(event, pPath, singleton, ComponentScopeType.GLOBAL, false);
+      RepositoryMetrics.hit(pPath);
+      return singleton;
+    }
+
+    try {
+      long trace = StartupTrace.begin();
+      ListMultimap<String, ValueWithModifier> properties = getPropertiesCache().get(pPath);
+      StartupTrace.end(StartupTrace.LOOKUP, pPath, getTriggeringComponent(pPath), trace);
+
+      return resolve(pPath, properties, event);
+    } catch (RuntimeException | Error ex) {
+      FlightEvents.endResolve(event, pPath, null, null, false);
+      throw ex;
+    }
   }
 
   @Override
@@ -178,10 +604,25 @@ public class ComponentRepository implements Glue {
     return pClass.cast(resolve(pPath));
   }
 
+  /**
+   * @return true if current thread is creating a component
+   */
+  public static boolean isCreating() {
+    return !mCreationPath.get().isEmpty();
+  }
+
   public static ComponentRepository instance() {
     return new ComponentRepository();
   }
 
+  /**
+   * @return Future completed once configuration layers are loaded. With {@value Constant.SystemProperties#BACKGROUND_INIT}
+   * set, layers are loaded in background and caller can do other work meanwhile.
+   */
+  public static CompletableFuture<Void> whenReady() {
+    return mPropertiesRepository.whenReady();
+  }
+
   public static Map<String, ListMultimap<String, ValueWithModifier>> getPropertiesCache() {
     return mPropertiesRepository.getPropertiesCache();
   }
@@ -0,0 +1,357 @@
+package vinscom.ioc;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.primitives.Primitives;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.common.ClassMetadata;
+import vinscom.ioc.common.Constant;
+import vinscom.ioc.common.Util;
+import vinscom.ioc.common.ValueWithModifier;
+
+/**
+ * Generates {@link ComponentFactory} source for every component of configuration layers, and {@link FactoryIndex}
+ * listing them. Run at build time, after component classes are compiled:
+ *
+ * <pre>
+ * java -Dglue.layers=layer1,layer2 vinscom.ioc.FactoryGenerator target/generated-sources/glue
+ * </pre>
+ *
+ * Generation fails if class of component can't be found, or component has property without setter. Component whose
+ * class, constructor or setter argument is not public is left out, and is created with reflection.
+ *
+ * @author vinay
+ */
+public class FactoryGenerator {
+
+  private static final Logger logger = LogManager.getLogger(FactoryGenerator.class.getCanonicalName());
+  private static final String PACKAGE = FactoryIndex.GENERATED.substring(0, FactoryIndex.GENERATED.lastIndexOf('.'));
+  private static final String INDEX = FactoryIndex.GENERATED.substring(PACKAGE.length() + 1);
+
+  private final List<String> layers;
+
+  public FactoryGenerator(List<String> pLayers) {
+    this.layers = pLayers;
+  }
+
+  /**
+   * @param pArgs Output directory, and optionally comma separated layers. Layers default to
+   * {@value Constant.SystemProperties#LAYERS}.
+   */
+  public static void main(String[] pArgs) {
+
+    if (pArgs.length < 1) {
+      throw new IllegalArgumentException("Usage: FactoryGenerator <output directory> [layers]");
+    }
+
+    List<String> layers = pArgs.length > 1 ? Arrays.asList(pArgs[1].split(Constant.SystemProperties.SEPERATOR)) : Util.getSystemLayers();
+    Map<String, String> sources = new FactoryGenerator(layers).write(Paths.get(pArgs[0]));
+
+    logger.info(() -> "Generated " + (sources.size() - 1) + " component factories in " + pArgs[0]);
+  }
+
+  /**
+   * @param pOutput Source directory
+   * @return Generated sources written, by file name relative to output directory
+   */
+  public Map<String, String> write(Path pOutput) {
+
+    Map<String, String> sources = generate();
+
+    try {
+      for (Map.Entry<String, String> source : sources.entrySet()) {
+        Path file = pOutput.resolve(source.getKey());
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getValue().getBytes());
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    return sources;
+  }
+
+  /**
+   * @return Source of every factory and of index, by file name relative to source directory
+   */
+  public Map<String, String> generate() {
+
+    PropertiesRepository repository = new PropertiesRepository();
+    repository.setLayers(layers);
+    repository.init();
+
+    Map<String, ListMultimap<String, ValueWithModifier>> components = new TreeMap<>(repository.getPropertiesCache());
+    Map<String, String> sources = new TreeMap<>();
+    Map<String, String> factories = new TreeMap<>();
+    Set<String> names = new HashSet<>();
+    List<String> errors = new ArrayList<>();
+
+    for (Map.Entry<String, ListMultimap<String, ValueWithModifier>> component : components.entrySet()) {
+
+      String path = component.getKey();
+
+      try {
+        String name = getFactoryName(path, names);
+        String source = generate(path, name, component.getValue());
+        if (source != null) {
+          sources.put(getFile(name), source);
+          factories.put(path, name);
+        }
+      } catch (RuntimeException ex) {
+        errors.add(ex.getMessage());
+      }
+    }
+
+    if (!errors.isEmpty()) {
+      throw new RuntimeException("Failed to generate factories:\n" + String.join("\n", errors));
+    }
+
+    sources.put(getFile(INDEX), generateIndex(factories));
+
+    return sources;
+  }
+
+  /**
+   * @return Source of factory, or null if component can't be created without reflection
+   */
+  private String generate(String pPath, String pName, ListMultimap<String, ValueWithModifier> pProperties) {
+
+    String clazz = Util.getLastValue(pProperties, Constant.Component.CLASS);
+
+    if (clazz == null) {
+      logger.debug(() -> "Component[" + pPath + "]:No class defined, skipped");
+      return null;
+    }
+
+    Class<?> type;
+
+    try {
+      type = Class.forName(clazz, false, Thread.currentThread().getContextClassLoader());
+    } catch (ClassNotFoundException | LinkageError ex) {
+      throw new RuntimeException("Component[" + pPath + "]:Class not found:" + clazz);
+    }
+
+    boolean inner = type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers());
+
+    if (!isAccessible(type) || inner || Modifier.isAbstract(type.getModifiers()) || !hasPublicConstructor(type)) {
+      logger.info(() -> "Component[" + pPath + "]:Class " + clazz + " has no public constructor, created with reflection");
+      return null;
+    }
+
+    ClassMetadata metadata = ClassMetadata.of(type);
+    List<String> properties = new ArrayList<>();
+    List<Method> setters = new ArrayList<>();
+
+    for (String property : new TreeMap<>(pProperties.asMap()).keySet()) {
+
+      if (Constant.Component.CLASS.equals(property) || Constant.Component.SCOPE.equals(property) || Constant.Component.RELOAD.equals(property)) {
+        continue;
+      }
+
+      Method setter = metadata.getSetter(property);
+
+      if (setter == null) {
+        throw new RuntimeException("Component[" + pPath + "]:No setter found for property:" + property);
+      }
+
+      if (setter.getParameterCount() != 1 || !isAccessible(setter.getParameterTypes()[0]) || !isAccessible(setter.getDeclaringClass())) {
+        logger.info(() -> "Component[" + pPath + "]:Setter " + setter.getName() + " can't be called from generated code, created with reflection");
+        return null;
+      }
+
+      properties.add(property);
+      setters.add(setter);
+    }
+
+    Method start = metadata.getStartMethod();
+    String typeName = type.getCanonicalName();
+    StringBuilder sb = new StringBuilder();
+
+    sb.append("package ").append(PACKAGE).append(";\n\n");
+    sb.append("/**\n * Generated by ").append(FactoryGenerator.class.getName()).append(" for ").append(pPath).append(". Do not edit.\n */\n");
+    sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+    sb.append("public final class ").append(pName).append(" extends ").append(ComponentFactory.class.getName()).append(" {\n\n");
+
+    sb.append("  public ").append(pName).append("() {\n");
+    sb.append("    super(").append(literal(pPath)).append(", ").append(literal(ComponentFactory.fingerprint(pProperties))).append(", ").append(typeName).append(".class,\n");
+    sb.append("            new String[]{");
+    appendJoined(sb, properties, FactoryGenerator::literal);
+    sb.append("},\n            new String[]{");
+    appendJoined(sb, setters, (m) -> literal(m.getName()));
+    sb.append("},\n            new Class[]{");
+    appendJoined(sb, setters, (m) -> m.getParameterTypes()[0].getCanonicalName() + ".class");
+    sb.append("},\n            ").append(start == null ? "null" : literal(start.getName())).append(");\n");
+    sb.append("  }\n\n");
+
+    sb.append("  @Override\n");
+    sb.append("  public Object newInstance() {\n");
+    sb.append("    return new ").append(typeName).append("();\n");
+    sb.append("  }\n\n");
+
+    sb.append("  @Override\n");
+    sb.append("  public void set(Object pInstance, int pProperty, Object pValue) throws Exception {\n");
+    sb.append("    ").append(typeName).append(" instance = (").append(typeName).append(") pInstance;\n");
+    sb.append("    switch (pProperty) {\n");
+
+    for (int i = 0; i < setters.size(); i++) {
+      Method setter = setters.get(i);
+      sb.append("      case ").append(i).append(":\n");
+      sb.append("        instance.").append(setter.getName()).append("((").append(getCastType(setter.getParameterTypes()[0])).append(") pValue);\n");
+      sb.append("        return;\n");
+    }
+
+    sb.append("      default:\n");
+    sb.append("        throw new IllegalArgumentException(\"Component[").append(escape(pPath)).append("]:No property \" + pProperty);\n");
+    sb.append("    }\n");
+    sb.append("  }\n");
+
+    if (start != null) {
+      sb.append("\n  @Override\n");
+      sb.append("  public void start(Object pInstance) throws Exception {\n");
+      sb.append("    ((").append(typeName).append(") pInstance).").append(start.getName()).append("();\n");
+      sb.append("  }\n");
+    }
+
+    sb.append("\n}\n");
+
+    return sb.toString();
+  }
+
+  private String generateIndex(Map<String, String> pFactories) {
+
+    StringBuilder sb = new StringBuilder();
+
+    sb.append("package ").append(PACKAGE).append(";\n\n");
+    sb.append("/**\n * Generated by ").append(FactoryGenerator.class.getName()).append(". Do not edit.\n */\n");
+    sb.append("public final class ").append(INDEX).append(" implements ").append(FactoryIndex.class.getName()).append(" {\n\n");
+    sb.append("  @Override\n");
+    sb.append("  public ").append(ComponentFactory.class.getName()).append(" getFactory(String pPath) {\n");
+    sb.append("    switch (pPath) {\n");
+
+    pFactories.forEach((path, name) -> {
+      sb.append("      case ").append(literal(path)).append(":\n");
+      sb.append("        return new ").append(name).append("();\n");
+    });
+
+    sb.append("      default:\n");
+    sb.append("        return null;\n");
+    sb.append("    }\n");
+    sb.append("  }\n\n");
+    sb.append("}\n");
+
+    return sb.toString();
+  }
+
+  /**
+   * @return Class name made of component path, such as <code>Factory_vinscom_ioc_Component</code>, unique among
+   * generated factories
+   */
+  private static String getFactoryName(String pPath, Set<String> pNames) {
+
+    StringBuilder sb = new StringBuilder("Factory");
+
+    for (char c : pPath.toCharArray()) {
+      sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+    }
+
+    String name = sb.toString();
+
+    for (int i = 1; !pNames.add(name); i++) {
+      name = sb.toString() + "_" + i;
+    }
+
+    return name;
+  }
+
+  private static String getFile(String pName) {
+    return PACKAGE.replace('.', '/') + "/" + pName + ".java";
+  }
+
+  /**
+   * @return Type value is cast to before it is given to setter. Primitive is cast to its wrapper, and unboxed by
+   * compiler.
+   */
+  private static String getCastType(Class<?> pType) {
+
+    if (!pType.isPrimitive()) {
+      return pType.getCanonicalName();
+    }
+
+    return Primitives.wrap(pType).getCanonicalName();
+  }
+
+  private static boolean isAccessible(Class<?> pType) {
+
+    Class<?> type = pType;
+
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+
+    if (type.isPrimitive()) {
+      return true;
+    }
+
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers()) || c.isAnonymousClass() || c.isLocalClass()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean hasPublicConstructor(Class<?> pType) {
+    try {
+      return Modifier.isPublic(pType.getConstructor().getModifiers());
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
+  }
+
+  private static <T> void appendJoined(StringBuilder pSb, List<T> pItems, Function<T, String> pFormat) {
+    for (int i = 0; i < pItems.size(); i++) {
+      if (i > 0) {
+        pSb.append(", ");
+      }
+      pSb.append(pFormat.apply(pItems.get(i)));
+    }
+  }
+
+  private static String literal(String pValue) {
+    return "\"" + escape(pValue) + "\"";
+  }
+
+  private static String escape(String pValue) {
+
+    StringBuilder sb = new StringBuilder();
+
+    for (char c : pValue.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20 || c > 0x7e) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,48 @@
+package vinscom.ioc;
+
+import org.apache.logging.log4j.LogManager;
+import vinscom.ioc.common.Constant;
+
+/**
+ * Generated factories by component path. {@link FactoryGenerator} writes one implementation, named
+ * {@value #GENERATED}, listing factory of every component it generated.
+ *
+ * @author vinay
+ */
+public interface FactoryIndex {
+
+  String GENERATED = "vinscom.ioc.generated.ComponentFactories";
+
+  /**
+   * Index without any factory, every component is created with reflection.
+   */
+  FactoryIndex NONE = (p) -> null;
+
+  /**
+   * @param pPath Path of component
+   * @return New factory of component, or null if none is generated
+   */
+  ComponentFactory getFactory(String pPath);
+
+  /**
+   * @return Generated index found on class path, or {@link #NONE} if there is none or
+   * {@value Constant.SystemProperties#FACTORIES} is false
+   */
+  static FactoryIndex load() {
+
+    if (!Boolean.parseBoolean(System.getProperty(Constant.SystemProperties.FACTORIES, "true"))) {
+      return NONE;
+    }
+
+    try {
+      FactoryIndex index = (FactoryIndex) Class.forName(GENERATED).newInstance();
+      LogManager.getLogger(FactoryIndex.class.getCanonicalName()).debug(() -> "Using generated factories:" + GENERATED);
+      return index;
+    } catch (ClassNotFoundException ex) {
+      return NONE;
+    } catch (InstantiationException | IllegalAccessException ex) {
+      throw new RuntimeException("Failed to load generated factories:" + GENERATED, ex);
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package vinscom.ioc;
+
+import java.lang.reflect.InvocationTargetException;
+import vinscom.ioc.common.MethodInvoker;
+
+/**
+ * Calls setter or start service method through generated {@link ComponentFactory}.
+ *
+ * @author vinay
+ */
+class FactoryInvoker extends MethodInvoker {
+
+  private static final int START = -1;
+
+  private final ComponentFactory factory;
+  private final int property;
+
+  private FactoryInvoker(ComponentFactory pFactory, int pProperty, String pName) {
+    super(pName);
+    this.factory = pFactory;
+    this.property = pProperty;
+  }
+
+  static FactoryInvoker setter(ComponentFactory pFactory, int pProperty) {
+    return new FactoryInvoker(pFactory, pProperty, pFactory.getSetter(pProperty));
+  }
+
+  static FactoryInvoker start(ComponentFactory pFactory) {
+    return new FactoryInvoker(pFactory, START, pFactory.getStartMethod());
+  }
+
+  @Override
+  public Object invoke(Object pInstance) throws IllegalAccessException, InvocationTargetException {
+    try {
+      factory.start(pInstance);
+      return null;
+    } catch (ClassCastException | NullPointerException ex) {
+      if (!factory.getType().isInstance(pInstance)) {
+        throw new IllegalArgumentException("Instance is not of type " + factory.getType().getName() + ":" + getName(), ex);
+      }
+      throw new InvocationTargetException(ex);
+    } catch (Exception ex) {
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+  @Override
+  public void invoke(Object pInstance, Object pValue) throws IllegalAccessException, InvocationTargetException {
+    try {
+      factory.set(pInstance, property, pValue);
+    } catch (ClassCastException | NullPointerException ex) {
+      if (!factory.getType().isInstance(pInstance) || !isAssignable(factory.getPropertyType(property), pValue)) {
+        throw new IllegalArgumentException("Argument type mismatch for " + factory.getPath() + ":" + getName(), ex);
+      }
+      throw new InvocationTargetException(ex);
+    } catch (Exception ex) {
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+}
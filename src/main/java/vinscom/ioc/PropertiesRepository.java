@@ -1,29 +1,48 @@
 package vinscom.ioc;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 
-import io.reactivex.Completable;
-import io.reactivex.Observable;
 import vinscom.ioc.common.Tuple;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import vinscom.ioc.common.CompactProperties;
 import vinscom.ioc.common.Constant;
+import vinscom.ioc.common.LayerIndex;
+import vinscom.ioc.common.PropertiesFile;
+import vinscom.ioc.common.PropertiesParser;
 import vinscom.ioc.common.Util;
 import vinscom.ioc.common.ValueWithModifier;
-import vinscom.ioc.enumeration.PropertyValueModifier;
+import vinscom.ioc.trace.FlightEvents;
+import vinscom.ioc.trace.RepositoryMetrics;
+import vinscom.ioc.trace.StartupTrace;
 
 public class PropertiesRepository {
 
@@ -31,179 +50,616 @@ public class PropertiesRepository {
   private static final String PROPERTY_EXTENSION = ".properties";
   private static final int PROPERTY_EXTENSION_LENGTH = PROPERTY_EXTENSION.length();
 
-  private final Map<String, ListMultimap<String, ValueWithModifier>> propertiesRepository;
-
-  private boolean initialized = false;
+  private static final long RELOAD_QUIET_PERIOD = 200;
+
+  private volatile Map<String, ListMultimap<String, ValueWithModifier>> propertiesRepository;
+  private final Map<String, String> basedOnParents = new ConcurrentHashMap<>();
+
+  private final CompletableFuture<Void> ready = new CompletableFuture<>();
+  private volatile boolean initialized = false;
+  private volatile boolean background = false;
+  private volatile long version = 0;
+  private boolean lazy = false;
+  private boolean reload = false;
+  private volatile LazyPropertiesCache lazyPropertiesCache;
+  private volatile LayerIndex layerIndex;
+  private Map<String, List<PropertiesFile>> index;
+  private final List<Consumer<Set<String>>> reloadListeners = new CopyOnWriteArrayList<>();
+  private final List<Consumer<LayerIndex>> layerIndexListeners = new CopyOnWriteArrayList<>();
+  private PropertiesWatcher watcher;
   private List<String> layers;
+  private Path snapshotFile;
 
   public PropertiesRepository() {
     this.propertiesRepository = new HashMap<>();
   }
 
+  /**
+   * Load all layers in calling thread. Files are parsed in parallel, but merged in layer order, so layer defined later
+   * always overrides layer defined before.
+   */
   protected void init() {
+    long trace = StartupTrace.begin();
+    try {
+      if (isLazy()) {
+        index();
+      } else {
+        load();
+        compact(propertiesRepository);
+      }
+      if (isReload()) {
+        watch();
+      }
+      setInitialized(true);
+      StartupTrace.end(StartupTrace.LOAD, null, null, trace);
+      ready.complete(null);
+    } catch (RuntimeException | Error ex) {
+      ready.completeExceptionally(ex);
+      throw ex;
+    }
+  }
 
-    Observable<Tuple<Path, Path>> paths = Observable
-            .fromIterable(getLayers())
-            .map(path -> Paths.get(path))
-            .flatMap(this::findAllPropertiesFile);
-
-    Observable<ListMultimap<String, ValueWithModifier>> cachedProperties = loadCachedProperties(paths);
-    Observable<Properties> newProperties = loadUncachedProperties(paths);
-
-    cachedProperties
-            .zipWith(newProperties, this::mergeUncachedIntoCachedProperties)
-            .flatMap((t) -> t)
-            .doOnComplete(() -> setInitialized(true))
-            .blockingSubscribe();
-    
-    
-    propertiesRepository
-            .entrySet()
-            .stream()
-            .filter((t) -> Util.getLastValue(t.getValue(), Constant.Component.BASED_ON) != null)
-            .forEachOrdered((t) -> updateBasedOnProperties(t.getKey(),t.getValue()));
-    
-  }
-
-  private void updateBasedOnProperties(String componentPath, ListMultimap<String, ValueWithModifier> properties){
-    
-    String baseOnComponentPath = Util.getLastValue(properties, Constant.Component.BASED_ON);
-    
-    ListMultimap<String, ValueWithModifier> baseOnProperties = propertiesRepository.get(baseOnComponentPath);
-    
-    if(Util.getLastValue(baseOnProperties, Constant.Component.BASED_ON) != null){
-      updateBasedOnProperties(baseOnComponentPath, baseOnProperties);
-    }
-    
-    ListMultimap<String, ValueWithModifier> newProperties = ArrayListMultimap.create();
-    
-    baseOnProperties
-            .entries()
+  private void load() {
+
+    LayerIndex.Builder builder = new LayerIndex.Builder(getLayers());
+    List<PropertiesFile> files = findAllPropertiesFiles(builder);
+    layerIndex = builder.build();
+    PropertiesSnapshot snapshot = getSnapshotFile() == null ? null : PropertiesSnapshot.read(getSnapshotFile(), getLayers());
+    Set<String> affected = null;
+
+    if (snapshot != null) {
+      Set<String> changed = snapshot.restoreUnchanged(files);
+
+      if (changed.isEmpty()) {
+        logger.debug(() -> "Using snapshot:" + getSnapshotFile());
+        index(files);
+        propertiesRepository.putAll(snapshot.getProperties());
+        basedOnParents.putAll(snapshot.getBasedOn());
+        return;
+      }
+
+      Set<String> components = snapshot.findAffected(changed);
+      logger.debug(() -> "Snapshot is stale, merging components again:" + components);
+
+      snapshot
+              .getProperties()
+              .entrySet()
+              .stream()
+              .filter((t) -> !components.contains(t.getKey()))
+              .forEach((t) -> propertiesRepository.put(t.getKey(), t.getValue()));
+
+      snapshot
+              .getBasedOn()
+              .entrySet()
+              .stream()
+              .filter((t) -> !components.contains(t.getKey()))
+              .forEach((t) -> basedOnParents.put(t.getKey(), t.getValue()));
+
+      affected = components;
+    }
+
+    logger.debug(() -> "Loading " + files.stream().filter((f) -> !f.isLoaded()).count() + " property files");
+
+    files
+            .parallelStream()
+            .filter((f) -> !f.isLoaded())
+            .forEach(this::loadPropertiesFile);
+
+    index(files);
+
+    Set<String> merge = affected;
+
+    files
             .stream()
-            .forEachOrdered((e) -> {
-              newProperties.put(e.getKey(),e.getValue());
-            });
-    
-    properties
-            .entries()
+            .filter((f) -> merge == null || merge.contains(f.getComponentPath()))
+            .forEachOrdered((f) -> mergePropertiesFile(propertiesRepository, f));
+
+    basedOnParents.putAll(findBasedOnParents(propertiesRepository));
+    updateBasedOnProperties(propertiesRepository);
+
+    if (getSnapshotFile() != null) {
+      logger.debug(() -> "Writing snapshot:" + getSnapshotFile());
+      new PropertiesSnapshot(getLayers(), files, basedOnParents, propertiesRepository).write(getSnapshotFile());
+    }
+  }
+
+  /**
+   * Only find properties files of all layers, and index them by component path. Files of component are parsed and
+   * merged when component is asked for first time.
+   */
+  private void index() {
+
+    if (getSnapshotFile() != null) {
+      logger.warn(() -> "Snapshot is not used in lazy mode:" + getSnapshotFile());
+    }
+
+    LayerIndex.Builder builder = new LayerIndex.Builder(getLayers());
+    List<PropertiesFile> files = findAllPropertiesFiles(builder);
+    layerIndex = builder.build();
+
+    Map<String, List<PropertiesFile>> index = files
             .stream()
-            .filter((p) -> !Constant.Component.BASED_ON.equals(p.getKey()))
-            .forEachOrdered((e) -> {
-              newProperties.put(e.getKey(),e.getValue());
-            });
-    
-    propertiesRepository.put(componentPath, newProperties);
+            .collect(Collectors.groupingBy(PropertiesFile::getComponentPath, HashMap::new, Collectors.toList()));
+
+    logger.debug(() -> "Indexed " + index.size() + " components");
+    lazyPropertiesCache = new LazyPropertiesCache(index);
+  }
+
+  /**
+   * Keep parsed files by component path, if they are needed to merge component again on reload.
+   *
+   * @param pFiles
+   */
+  private void index(List<PropertiesFile> pFiles) {
+    if (isReload()) {
+      index = pFiles
+              .stream()
+              .collect(Collectors.groupingBy(PropertiesFile::getComponentPath, HashMap::new, Collectors.toList()));
+    }
   }
-  
-  private Observable<Boolean> mergeUncachedIntoCachedProperties(ListMultimap<String, ValueWithModifier> pCached, Properties pUncached) {
 
-    Observable<Map.Entry<String, String>> property = Observable
-            .fromIterable(pUncached.entrySet())
-            .map(e -> (Map.Entry<String, String>) new AbstractMap.SimpleEntry<>(e.getKey().toString(), e.getValue().toString()));
+  /**
+   * Replace merged properties of every component with compact read only copy. Names and values repeated across
+   * components are then kept only once.
+   */
+  private void compact(Map<String, ListMultimap<String, ValueWithModifier>> pProperties) {
+    pProperties.replaceAll((path, properties) -> CompactProperties.copyOf(properties));
+  }
+
+  private void watch() {
+    try {
+      watcher = new PropertiesWatcher(this, getLayers().stream().map(Paths::get).collect(Collectors.toList()), RELOAD_QUIET_PERIOD);
+      watcher.start();
+    } catch (IOException ex) {
+      throw new RuntimeException("Failed to watch configuration layers", ex);
+    }
+  }
 
-    Observable<String> key = property.map(e -> e.getKey()).map(this::extractKey);
-    Observable<PropertyValueModifier> modifier = property.map(e -> e.getKey()).map(this::extractPropertyValueModifier);
-    Observable<ValueWithModifier> value = property
-            .map(e -> e.getValue())
-            .zipWith(modifier, (v, m) -> {
-              return new ValueWithModifier(v, m);
-            });
+  /**
+   * Parse changed files again and merge again components defined by them, and components based on them. New
+   * configuration is built aside and published with single write, so readers never see half applied change.
+   *
+   * @param pPaths Changed files or directories, or null if any file in layers may have changed
+   */
+  protected synchronized void reload(Set<Path> pPaths) {
+
+    LazyPropertiesCache lazyCache = lazyPropertiesCache;
+    Map<String, List<PropertiesFile>> currentIndex = lazyCache == null ? index : lazyCache.index;
+    Map<String, List<PropertiesFile>> nextIndex = new HashMap<>(currentIndex);
+    Set<String> changed = new HashSet<>();
+    LayerIndex.Builder builder = pPaths == null ? new LayerIndex.Builder(getLayers()) : null;
+    Set<Path> changedFiles = findChangedFiles(pPaths, currentIndex, builder);
+    LayerIndex nextLayerIndex = builder == null ? layerIndex.update(pPaths) : builder.build();
+    Map<Path, Integer> layerOrder = LayerIndex.toLayerOrder(getLayers());
+
+    for (Path path : changedFiles) {
+
+      Path layer = findLayer(path);
+
+      if (layer == null) {
+        continue;
+      }
+
+      String component = toComponentPath(layer, path);
+      List<PropertiesFile> files = new ArrayList<>(nextIndex.getOrDefault(component, Collections.emptyList()));
+      boolean existing = files.removeIf((f) -> f.getPath().equals(path));
+
+      if (Files.isRegularFile(path)) {
+        PropertiesFile file = new PropertiesFile(layer, path, component, lastModified(path), size(path));
+        if ((lazyCache == null || existing) && !loadPropertiesFile(file) && existing) {
+          logger.warn(() -> "Component[" + component + "]:Keeping previous properties of " + path);
+          continue;
+        }
+        files.add(file);
+        files.sort(Comparator.comparingInt((f) -> layerOrder.getOrDefault(f.getLayer().normalize(), Integer.MAX_VALUE)));
+      }
+
+      if (files.isEmpty()) {
+        nextIndex.remove(component);
+      } else {
+        nextIndex.put(component, files);
+      }
+
+      changed.add(component);
+    }
+
+    Set<String> affected = findAffected(basedOnParents, changed);
 
-    return key
-            .zipWith(value, (k, v) -> {
-              return pCached.put(k, v);
-            });
+    if (nextLayerIndex != layerIndex) {
+      layerIndex = nextLayerIndex;
+      layerIndexListeners.forEach((l) -> l.accept(nextLayerIndex));
+    }
 
+    if (affected.isEmpty()) {
+      logger.debug(() -> "No properties file changed");
+      return;
+    }
+
+    logger.info(() -> "Reloading components:" + affected);
+
+    if (lazyCache != null) {
+      LazyPropertiesCache nextCache = new LazyPropertiesCache(nextIndex);
+      lazyCache.loaded
+              .entrySet()
+              .stream()
+              .filter((t) -> !affected.contains(t.getKey()))
+              .forEach((t) -> nextCache.loaded.put(t.getKey(), t.getValue()));
+      basedOnParents.keySet().removeAll(affected);
+      lazyPropertiesCache = nextCache;
+    } else {
+      Map<String, ListMultimap<String, ValueWithModifier>> properties = new HashMap<>(propertiesRepository);
+      properties.keySet().removeAll(affected);
+
+      affected
+              .stream()
+              .filter(nextIndex::containsKey)
+              .forEach((c) -> nextIndex.get(c).forEach((f) -> mergePropertiesFile(properties, f)));
+
+      Map<String, String> parents = findBasedOnParents(properties);
+      updateBasedOnProperties(properties);
+      compact(properties);
+
+      basedOnParents.keySet().removeAll(affected);
+      basedOnParents.putAll(parents);
+      index = nextIndex;
+      propertiesRepository = properties;
+    }
+
+    version++;
+    reloadListeners.forEach((l) -> l.accept(affected));
   }
 
-  private String extractKey(String pEntry) {
+  /**
+   * @param pPaths Changed files or directories, or null to compare all files of layers with indexed files
+   * @param pIndex
+   * @param pBuilder Collects all files of layers, if all files are compared
+   * @return Properties files added, modified or deleted
+   */
+  private Set<Path> findChangedFiles(Set<Path> pPaths, Map<String, List<PropertiesFile>> pIndex, LayerIndex.Builder pBuilder) {
+
+    Map<Path, PropertiesFile> known = new HashMap<>();
+    pIndex.values().forEach((files) -> files.forEach((f) -> known.put(f.getPath(), f)));
+
+    Set<Path> result = new HashSet<>();
+
+    if (pPaths == null) {
+      for (PropertiesFile file : findAllPropertiesFiles(pBuilder)) {
+        PropertiesFile old = known.remove(file.getPath());
+        if (old == null || old.getLastModified() != file.getLastModified() || old.getSize() != file.getSize()) {
+          result.add(file.getPath());
+        }
+      }
+      result.addAll(known.keySet());
+      return result;
+    }
+
+    for (Path path : pPaths) {
+      if (path.toString().endsWith(PROPERTY_EXTENSION)) {
+        result.add(path);
+        continue;
+      }
+      //Directory created or deleted
+      known.keySet().stream().filter((p) -> p.startsWith(path)).forEach(result::add);
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> paths = Files.walk(path)) {
+          paths.filter((p) -> p.toString().endsWith(PROPERTY_EXTENSION)).forEach(result::add);
+        } catch (IOException ex) {
+          logger.error(() -> "Failed to read directory:" + path, ex);
+        }
+      }
+    }
+
+    return result;
+  }
 
-    String modifier = pEntry.substring(pEntry.length() - 1);
+  private Path findLayer(Path pFile) {
+    return getLayers()
+            .stream()
+            .map(Paths::get)
+            .filter(pFile::startsWith)
+            .findFirst()
+            .orElse(null);
+  }
 
-    switch (modifier) {
-      case Constant.Component.Modifier.PLUS:
-      case Constant.Component.Modifier.MINU:
-      case Constant.Component.Modifier.FROM:
-        return pEntry.substring(0, pEntry.length() - 1);
-      default:
-        return pEntry;
+  private long lastModified(Path pFile) {
+    try {
+      return Files.getLastModifiedTime(pFile).toMillis();
+    } catch (IOException ex) {
+      return 0;
     }
+  }
 
+  private long size(Path pFile) {
+    try {
+      return Files.size(pFile);
+    } catch (IOException ex) {
+      return 0;
+    }
   }
 
-  private PropertyValueModifier extractPropertyValueModifier(String pEntry) {
+  /**
+   * @param pBasedOn $basedOn parent by component path
+   * @param pChanged Paths of changed components
+   * @return Changed components and all components based on them, directly or through other components
+   */
+  protected static Set<String> findAffected(Map<String, String> pBasedOn, Set<String> pChanged) {
+
+    Set<String> affected = new HashSet<>(pChanged);
+
+    for (String component : pBasedOn.keySet()) {
+      Set<String> visited = new HashSet<>();
+      String parent = pBasedOn.get(component);
+      while (parent != null && visited.add(parent)) {
+        if (pChanged.contains(parent)) {
+          affected.add(component);
+          break;
+        }
+        parent = pBasedOn.get(parent);
+      }
+    }
 
-    String modifier = pEntry.substring(pEntry.length() - 1);
+    return affected;
+  }
 
-    switch (modifier) {
-      case Constant.Component.Modifier.PLUS:
-        return PropertyValueModifier.PLUS;
-      case Constant.Component.Modifier.MINU:
-        return PropertyValueModifier.MINUS;
-      case Constant.Component.Modifier.FROM:
-        return PropertyValueModifier.FROM;
-      default:
-        return PropertyValueModifier.NONE;
+  /**
+   * Stop watching layers for change.
+   */
+  public void close() {
+    if (watcher != null) {
+      watcher.close();
     }
+  }
+
+  /**
+   * Load all layers in background. Properties can't be read before returned future completes, and
+   * {@link #getPropertiesCache()} waits for it.
+   *
+   * @return Future completed once repository is initialized
+   */
+  protected CompletableFuture<Void> initAsync() {
+    background = true;
+    ForkJoinPool.commonPool().execute(this::init);
+    return ready;
+  }
+
+  /**
+   * @return Future completed once repository is initialized
+   */
+  public CompletableFuture<Void> whenReady() {
+    return ready;
+  }
+
+  private Map<String, String> findBasedOnParents(Map<String, ListMultimap<String, ValueWithModifier>> pProperties) {
+    return pProperties
+            .entrySet()
+            .stream()
+            .filter((t) -> Util.getLastValue(t.getValue(), Constant.Component.BASED_ON) != null)
+            .collect(Collectors.toMap(Map.Entry::getKey, (t) -> Util.getLastValue(t.getValue(), Constant.Component.BASED_ON)));
+  }
 
+  /**
+   * Replace properties of every component having $basedOn with properties of its parent followed by its own
+   * properties. Parents are resolved before their children, so every component is flattened exactly once, however many
+   * components are based on it.
+   *
+   * @param pProperties Merged properties. Components without $basedOn are already flat.
+   */
+  private void updateBasedOnProperties(Map<String, ListMultimap<String, ValueWithModifier>> pProperties) {
+
+    Map<String, String> pending = findBasedOnParents(pProperties);
+
+    for (String component : new ArrayList<>(pending.keySet())) {
+
+      //Walk up till flat component, collecting components to flatten
+      Deque<String> chain = new ArrayDeque<>();
+      String current = component;
+
+      while (pending.containsKey(current)) {
+        if (chain.contains(current)) {
+          throw new RuntimeException("Component[" + current + "]:Cyclic $basedOn:" + cycleOf(chain, current));
+        }
+        chain.push(current);
+        current = pending.get(current);
+      }
+
+      //Flatten from top most parent down
+      while (!chain.isEmpty()) {
+        String child = chain.pop();
+        String parent = pending.remove(child);
+        ListMultimap<String, ValueWithModifier> parentProperties = pProperties.get(parent);
+        if (parentProperties != null) {
+          //Children share compact properties of parent
+          parentProperties = CompactProperties.copyOf(parentProperties);
+          pProperties.put(parent, parentProperties);
+        }
+        pProperties.put(child, derive(child, parent, parentProperties, pProperties.get(child)));
+      }
+    }
   }
 
-  private Observable<Properties> loadUncachedProperties(Observable<Tuple<Path, Path>> pPath) {
+  private String cycleOf(Deque<String> pChain, String pRepeated) {
+
+    List<String> cycle = new ArrayList<>();
+    cycle.add(pRepeated);
+
+    for (String component : pChain) {
+      cycle.add(component);
+      if (component.equals(pRepeated)) {
+        break;
+      }
+    }
+
+    Collections.reverse(cycle);
+    return String.join(" -> ", cycle);
+  }
 
-    return pPath
-            .map((p) -> {
-              Properties item = new Properties();
-              logger.debug(() -> "Loading Property File:" + p.value2);
-              try {
-                item.load(Files.newBufferedReader(p.value2));
-              } catch (IOException ex) {
-                ex.printStackTrace();
-              }
-              return item;
-            });
+  /**
+   * @param pPath
+   * @param pParentPath
+   * @param pParent Flat properties of $basedOn component
+   * @param pProperties Own properties of component
+   * @return Properties of component sharing properties of parent
+   */
+  private ListMultimap<String, ValueWithModifier> derive(String pPath, String pParentPath, ListMultimap<String, ValueWithModifier> pParent, ListMultimap<String, ValueWithModifier> pProperties) {
+
+    if (pParent == null) {
+      throw new RuntimeException("Component[" + pPath + "]:$basedOn component not found:" + pParentPath);
+    }
 
+    return CompactProperties.derive(CompactProperties.copyOf(pParent), Multimaps.filterKeys(pProperties, (key) -> !Constant.Component.BASED_ON.equals(key)));
   }
 
-  private Observable<ListMultimap<String, ValueWithModifier>> loadCachedProperties(Observable<Tuple<Path, Path>> pPath) {
+  private void mergePropertiesFile(Map<String, ListMultimap<String, ValueWithModifier>> pProperties, PropertiesFile pFile) {
+
+    ListMultimap<String, ValueWithModifier> properties = pProperties.get(pFile.getComponentPath());
 
-    return pPath
-            .map((path) -> {
-              String dir = path.value1.toString();
-              String fullPath = path.value2.toString();
+    if (properties == null) {
+      properties = ArrayListMultimap.create();
+      pProperties.put(pFile.getComponentPath(), properties);
+    }
 
-              //Key Without Property
-              String key = fullPath.substring(dir.length());
-              key = key.substring(0, key.length() - PROPERTY_EXTENSION_LENGTH);
+    for (Tuple<String, ValueWithModifier> entry : pFile.getEntries()) {
+      properties.put(entry.value1, entry.value2);
+    }
 
-              if (propertiesRepository.containsKey(key)) {
-                return propertiesRepository.get(key);
-              }
+  }
 
-              ListMultimap<String, ValueWithModifier> properties = ArrayListMultimap.create();
-              propertiesRepository.put(key, properties);
-              return properties;
-            });
+  /**
+   * Parse properties file. File which can't be read or parsed is logged, and has no properties.
+   *
+   * @param pFile
+   * @return true if file is parsed
+   */
+  private boolean loadPropertiesFile(PropertiesFile pFile) {
+
+    logger.debug(() -> "Loading Property File:" + pFile.getPath());
+    Object event = FlightEvents.beginPropertiesFile();
+    boolean loaded = true;
+
+    try {
+      pFile.setEntries(PropertiesParser.parse(pFile.getPath()));
+    } catch (IOException | RuntimeException ex) {
+      logger.error(() -> "Failed to load Property File:" + pFile.getPath(), ex);
+      pFile.setEntries(Collections.emptyList());
+      loaded = false;
+    }
 
+    FlightEvents.endPropertiesFile(event, pFile.getPath(), pFile.getLayer(), pFile.getComponentPath(), pFile.getSize(), pFile.getEntries().size());
+    return loaded;
   }
 
-  private Observable<Tuple<Path, Path>> findAllPropertiesFile(Path pPath) {
+  /**
+   * Walk all layers in parallel.
+   *
+   * @param pBuilder Collects every file found, not just properties files
+   * @return Properties files of all layers, in layer order
+   */
+  private List<PropertiesFile> findAllPropertiesFiles(LayerIndex.Builder pBuilder) {
+
+    return getLayers()
+            .parallelStream()
+            .map(Paths::get)
+            .map((layer) -> findAllPropertiesFiles(layer, pBuilder))
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
 
-    return Observable
-            .fromIterable((Iterable<Path>) () -> {
-              try {
-                return Files.walk(pPath).filter((t) -> {
-                  return t.toString().endsWith(PROPERTY_EXTENSION);
-                }).iterator();
-              } catch (IOException ex) {
-                return Collections.<Path>emptyIterator();
-              }
-            })
-            .map((fullPath) -> new Tuple<>(pPath, fullPath));
+  }
+
+  private List<PropertiesFile> findAllPropertiesFiles(Path pLayer, LayerIndex.Builder pBuilder) {
+
+    List<PropertiesFile> result = new ArrayList<>();
+
+    try (Stream<Path> paths = Files.find(pLayer, Integer.MAX_VALUE, (path, attributes) -> {
+      if (attributes.isRegularFile()) {
+        pBuilder.add(pLayer, path, attributes);
+      }
+      if (attributes.isRegularFile() && path.toString().endsWith(PROPERTY_EXTENSION)) {
+        result.add(new PropertiesFile(pLayer, path, toComponentPath(pLayer, path), attributes.lastModifiedTime().toMillis(), attributes.size()));
+      }
+      return false;
+    })) {
+      paths.count();
+    } catch (IOException ex) {
+      return Collections.emptyList();
+    }
+
+    return result;
+  }
 
+  /**
+   * @param pLayer
+   * @param pFile
+   * @return Path of component defined by file, such as /vinscom/ioc/test/component/PropertiesComponent
+   */
+  private String toComponentPath(Path pLayer, Path pFile) {
+    //Key Without Property
+    String key = pFile.toString().substring(pLayer.toString().length());
+    return key.substring(0, key.length() - PROPERTY_EXTENSION_LENGTH);
   }
 
   protected Map<String, ListMultimap<String, ValueWithModifier>> getPropertiesCache() {
-    return propertiesRepository;
+    if (background && !isInitialized()) {
+      long start = RepositoryMetrics.begin();
+      try {
+        ready.join();
+      } catch (CompletionException ex) {
+        throw new RuntimeException("Failed to load configuration layers", ex.getCause());
+      } finally {
+        RepositoryMetrics.waitedForConfiguration(start);
+      }
+    }
+    return lazyPropertiesCache == null ? propertiesRepository : lazyPropertiesCache;
+  }
+
+  /**
+   * @return Files of all layers by path relative to layer. Kept up to date by reload.
+   */
+  public LayerIndex getLayerIndex() {
+    return layerIndex;
+  }
+
+  /**
+   * @return true if properties of component are parsed and merged only when component is asked for
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  public void setLazy(boolean pLazy) {
+    this.lazy = pLazy;
+  }
+
+  /**
+   * @return true if layers are watched and changed files are loaded again
+   */
+  public boolean isReload() {
+    return reload;
+  }
+
+  public void setReload(boolean pReload) {
+    this.reload = pReload;
+  }
+
+  /**
+   * @return Number of reloads published since initialization
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @param pListener Called with paths of reloaded components, after new configuration is published. Not called if
+   * no properties file changed.
+   */
+  public void addReloadListener(Consumer<Set<String>> pListener) {
+    reloadListeners.add(pListener);
+  }
+
+  /**
+   * @param pListener Called with new index of layers, when any file of layers changed on reload
+   */
+  public void addLayerIndexListener(Consumer<LayerIndex> pListener) {
+    layerIndexListeners.add(pListener);
   }
 
   public boolean isInitialized() {
@@ -214,6 +670,17 @@ public class PropertiesRepository {
     this.initialized = initialized;
   }
 
+  /**
+   * @return File keeping snapshot of merged layers, or null if snapshot is not used
+   */
+  public Path getSnapshotFile() {
+    return snapshotFile;
+  }
+
+  public void setSnapshotFile(Path pSnapshotFile) {
+    this.snapshotFile = pSnapshotFile;
+  }
+
   public List<String> getLayers() {
     return layers;
   }
@@ -221,4 +688,117 @@ public class PropertiesRepository {
   public void setLayers(List<String> layers) {
     this.layers = layers;
   }
+
+  /**
+   * Properties cache of lazy mode. Component is loaded on first {@link #get(java.lang.Object)}, together with components
+   * in its $basedOn chain. Key set comes from index, so it is complete without loading anything, but iterating over
+   * values or entries loads all components.
+   */
+  private class LazyPropertiesCache extends ForwardingMap<String, ListMultimap<String, ValueWithModifier>> {
+
+    private final Map<String, List<PropertiesFile>> index;
+    private final Map<String, ListMultimap<String, ValueWithModifier>> loaded = new ConcurrentHashMap<>();
+
+    private LazyPropertiesCache(Map<String, List<PropertiesFile>> pIndex) {
+      this.index = pIndex;
+    }
+
+    @Override
+    protected Map<String, ListMultimap<String, ValueWithModifier>> delegate() {
+      return loaded;
+    }
+
+    @Override
+    public ListMultimap<String, ValueWithModifier> get(Object pPath) {
+      ListMultimap<String, ValueWithModifier> properties = loaded.get(pPath);
+      if (properties == null && index.containsKey(pPath)) {
+        properties = load((String) pPath, new ArrayDeque<>());
+      }
+      return properties;
+    }
+
+    @Override
+    public boolean containsKey(Object pPath) {
+      return index.containsKey(pPath) || loaded.containsKey(pPath);
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    public int size() {
+      return index.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return index.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<String, ListMultimap<String, ValueWithModifier>>> entrySet() {
+      index.keySet().forEach(this::get);
+      return super.entrySet();
+    }
+
+    @Override
+    public Collection<ListMultimap<String, ValueWithModifier>> values() {
+      index.keySet().forEach(this::get);
+      return super.values();
+    }
+
+    /**
+     * Parse and merge files of component. Two threads may load same component at the same time, but only properties
+     * loaded first are kept, so every caller sees same instance.
+     */
+    private ListMultimap<String, ValueWithModifier> load(String pPath, Deque<String> pChain) {
+
+      ListMultimap<String, ValueWithModifier> properties = loaded.get(pPath);
+
+      if (properties != null) {
+        return properties;
+      }
+
+      List<PropertiesFile> files = index.get(pPath);
+
+      if (pChain.contains(pPath)) {
+        throw new RuntimeException("Component[" + pPath + "]:Cyclic $basedOn:" + cycleOf(pChain, pPath));
+      }
+
+      logger.debug(() -> "Component[" + pPath + "]:Loading " + files.size() + " property files");
+
+      ListMultimap<String, ValueWithModifier> merged = ArrayListMultimap.create();
+
+      for (PropertiesFile file : files) {
+        List<Tuple<String, ValueWithModifier>> entries;
+        synchronized (file) {
+          if (!file.isLoaded()) {
+            loadPropertiesFile(file);
+          }
+          entries = file.getEntries();
+        }
+        entries.forEach((e) -> merged.put(e.value1, e.value2));
+      }
+
+      String basedOn = Util.getLastValue(merged, Constant.Component.BASED_ON);
+
+      if (basedOn != null) {
+        basedOnParents.put(pPath, basedOn);
+        pChain.push(pPath);
+        ListMultimap<String, ValueWithModifier> baseOnProperties = index.containsKey(basedOn) ? load(basedOn, pChain) : null;
+        pChain.pop();
+        properties = derive(pPath, basedOn, baseOnProperties, merged);
+      } else {
+        properties = merged;
+      }
+
+      ListMultimap<String, ValueWithModifier> compact = CompactProperties.copyOf(properties);
+      ListMultimap<String, ValueWithModifier> existing = loaded.putIfAbsent(pPath, compact);
+
+      return existing == null ? compact : existing;
+    }
+  }
+
 }
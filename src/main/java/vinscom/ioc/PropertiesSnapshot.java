@@ -0,0 +1,321 @@
+package vinscom.ioc;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.common.PropertiesFile;
+import vinscom.ioc.common.Tuple;
+import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+
+/**
+ * Binary image of fully merged configuration, used to skip parsing and merging of layers on next start.
+ *
+ * Snapshot keeps entries of every properties file together with its modification time and size, $basedOn parent of
+ * every component and final merged properties. All strings are written once in string table and referred by index.
+ *
+ * @author vinay
+ */
+public class PropertiesSnapshot {
+
+  private static final Logger logger = LogManager.getLogger(PropertiesSnapshot.class.getCanonicalName());
+  private static final int MAGIC = 0x474c5545;
+  private static final int VERSION = 1;
+  private static final PropertyValueModifier[] MODIFIERS = PropertyValueModifier.values();
+
+  private final List<String> layers;
+  private final Map<String, PropertiesFile> files;
+  private final Map<String, String> basedOn;
+  private final Map<String, ListMultimap<String, ValueWithModifier>> properties;
+
+  public PropertiesSnapshot(List<String> pLayers, List<PropertiesFile> pFiles, Map<String, String> pBasedOn, Map<String, ListMultimap<String, ValueWithModifier>> pProperties) {
+    this.layers = pLayers;
+    this.files = new LinkedHashMap<>();
+    pFiles.forEach((f) -> files.put(f.getPath().toString(), f));
+    this.basedOn = pBasedOn;
+    this.properties = pProperties;
+  }
+
+  public List<String> getLayers() {
+    return layers;
+  }
+
+  /**
+   * @return $basedOn parent by component path
+   */
+  public Map<String, String> getBasedOn() {
+    return basedOn;
+  }
+
+  public Map<String, ListMultimap<String, ValueWithModifier>> getProperties() {
+    return properties;
+  }
+
+  /**
+   * Copy entries of every file unchanged since snapshot was taken into found file, so only changed files need parsing.
+   *
+   * @param pFiles Files currently present in layers
+   * @return Paths of components with at least one added, changed or deleted file
+   */
+  public Set<String> restoreUnchanged(List<PropertiesFile> pFiles) {
+
+    Set<String> changed = new HashSet<>();
+    Set<String> found = new HashSet<>();
+
+    for (PropertiesFile file : pFiles) {
+      String key = file.getPath().toString();
+      PropertiesFile snapshotFile = files.get(key);
+      found.add(key);
+
+      if (snapshotFile != null
+              && snapshotFile.getLastModified() == file.getLastModified()
+              && snapshotFile.getSize() == file.getSize()
+              && snapshotFile.getComponentPath().equals(file.getComponentPath())) {
+        file.setEntries(snapshotFile.getEntries());
+      } else {
+        changed.add(file.getComponentPath());
+      }
+    }
+
+    files
+            .entrySet()
+            .stream()
+            .filter((e) -> !found.contains(e.getKey()))
+            .forEach((e) -> changed.add(e.getValue().getComponentPath()));
+
+    return changed;
+  }
+
+  /**
+   * @param pChanged Paths of changed components
+   * @return Changed components and all components based on them, directly or through other components
+   */
+  public Set<String> findAffected(Set<String> pChanged) {
+    return PropertiesRepository.findAffected(basedOn, pChanged);
+  }
+
+  /**
+   * Read snapshot with single read.
+   *
+   * @param pFile
+   * @param pLayers Current layers. Snapshot taken for other layers is ignored.
+   * @return Snapshot or null if file does not exist, can't be read or belongs to other layers
+   */
+  public static PropertiesSnapshot read(Path pFile, List<String> pLayers) {
+
+    if (!Files.isRegularFile(pFile)) {
+      return null;
+    }
+
+    try {
+      PropertiesSnapshot snapshot = new Reader(Files.readAllBytes(pFile)).read();
+      if (snapshot == null || !snapshot.getLayers().equals(pLayers)) {
+        logger.debug(() -> "Ignoring snapshot of other version or layers:" + pFile);
+        return null;
+      }
+      return snapshot;
+    } catch (IOException | RuntimeException ex) {
+      logger.warn(() -> "Ignoring unreadable snapshot:" + pFile, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Write snapshot into temporary file and move it to given file, so concurrently starting JVM never reads half written
+   * snapshot.
+   *
+   * @param pFile
+   */
+  public void write(Path pFile) {
+
+    try {
+      Path dir = pFile.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, pFile.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+        new Writer().write(this, out);
+      }
+      try {
+        Files.move(tmp, pFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(tmp, pFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException ex) {
+      logger.warn(() -> "Failed to write snapshot:" + pFile, ex);
+    }
+  }
+
+  private static class Writer {
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(1 << 16);
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+    private void write(PropertiesSnapshot pSnapshot, OutputStream pOut) throws IOException {
+
+      body.writeInt(pSnapshot.layers.size());
+      for (String layer : pSnapshot.layers) {
+        writeString(layer);
+      }
+
+      body.writeInt(pSnapshot.files.size());
+      for (PropertiesFile file : pSnapshot.files.values()) {
+        writeString(file.getLayer().toString());
+        writeString(file.getPath().toString());
+        writeString(file.getComponentPath());
+        body.writeLong(file.getLastModified());
+        body.writeLong(file.getSize());
+        body.writeInt(file.getEntries().size());
+        for (Tuple<String, ValueWithModifier> entry : file.getEntries()) {
+          writeEntry(entry.value1, entry.value2);
+        }
+      }
+
+      body.writeInt(pSnapshot.basedOn.size());
+      for (Map.Entry<String, String> entry : pSnapshot.basedOn.entrySet()) {
+        writeString(entry.getKey());
+        writeString(entry.getValue());
+      }
+
+      body.writeInt(pSnapshot.properties.size());
+      for (Map.Entry<String, ListMultimap<String, ValueWithModifier>> component : pSnapshot.properties.entrySet()) {
+        writeString(component.getKey());
+        body.writeInt(component.getValue().size());
+        for (Map.Entry<String, ValueWithModifier> entry : component.getValue().entries()) {
+          writeEntry(entry.getKey(), entry.getValue());
+        }
+      }
+
+      body.flush();
+
+      DataOutputStream out = new DataOutputStream(pOut);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(strings.size());
+      for (String s : strings.keySet()) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      bodyBytes.writeTo(out);
+      out.flush();
+    }
+
+    private void writeEntry(String pKey, ValueWithModifier pValue) throws IOException {
+      writeString(pKey);
+      body.writeByte(pValue.getPropertyValueModifier().ordinal());
+      writeString(pValue.getValue());
+    }
+
+    private void writeString(String pValue) throws IOException {
+      if (pValue == null) {
+        body.writeInt(-1);
+        return;
+      }
+      Integer index = strings.get(pValue);
+      if (index == null) {
+        index = strings.size();
+        strings.put(pValue, index);
+      }
+      body.writeInt(index);
+    }
+  }
+
+  private static class Reader {
+
+    private final DataInputStream in;
+    private String[] strings;
+
+    private Reader(byte[] pBytes) {
+      this.in = new DataInputStream(new ByteArrayInputStream(pBytes));
+    }
+
+    private PropertiesSnapshot read() throws IOException {
+
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        return null;
+      }
+
+      strings = new String[in.readInt()];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      int layerCount = in.readInt();
+      List<String> layers = new ArrayList<>(layerCount);
+      for (int i = 0; i < layerCount; i++) {
+        layers.add(readString());
+      }
+
+      int fileCount = in.readInt();
+      List<PropertiesFile> files = new ArrayList<>(fileCount);
+      for (int i = 0; i < fileCount; i++) {
+        Path layer = Paths.get(readString());
+        Path path = Paths.get(readString());
+        PropertiesFile file = new PropertiesFile(layer, path, readString(), in.readLong(), in.readLong());
+        int entryCount = in.readInt();
+        List<Tuple<String, ValueWithModifier>> entries = new ArrayList<>(entryCount);
+        for (int j = 0; j < entryCount; j++) {
+          String key = readString();
+          entries.add(new Tuple<>(key, readValue()));
+        }
+        file.setEntries(entries);
+        files.add(file);
+      }
+
+      int basedOnCount = in.readInt();
+      Map<String, String> basedOn = new HashMap<>();
+      for (int i = 0; i < basedOnCount; i++) {
+        basedOn.put(readString(), readString());
+      }
+
+      int componentCount = in.readInt();
+      Map<String, ListMultimap<String, ValueWithModifier>> properties = new HashMap<>();
+      for (int i = 0; i < componentCount; i++) {
+        String component = readString();
+        int entryCount = in.readInt();
+        ListMultimap<String, ValueWithModifier> entries = ArrayListMultimap.create();
+        for (int j = 0; j < entryCount; j++) {
+          String key = readString();
+          entries.put(key, readValue());
+        }
+        properties.put(component, entries);
+      }
+
+      return new PropertiesSnapshot(layers, files, basedOn, properties);
+    }
+
+    private ValueWithModifier readValue() throws IOException {
+      PropertyValueModifier modifier = MODIFIERS[in.readByte()];
+      return new ValueWithModifier(readString(), modifier);
+    }
+
+    private String readString() throws IOException {
+      int index = in.readInt();
+      return index < 0 ? null : strings[index];
+    }
+  }
+
+}
@@ -0,0 +1,150 @@
+package vinscom.ioc;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watches every directory of configuration layers and asks repository to reload changed files.
+ *
+ * Events are collected till no new event arrives for quiet period, so files copied together, such as during deployment,
+ * are reloaded together. If events are lost, repository compares all files of layers with files it knows.
+ *
+ * @author vinay
+ */
+public class PropertiesWatcher implements Runnable {
+
+  private static final Logger logger = LogManager.getLogger(PropertiesWatcher.class.getCanonicalName());
+
+  private final PropertiesRepository repository;
+  private final long quietPeriod;
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+  private volatile boolean closed = false;
+
+  /**
+   * @param pRepository Repository to reload
+   * @param pLayers Layers to watch
+   * @param pQuietPeriod Milliseconds without event after which collected events are reloaded
+   * @throws IOException If layer can't be watched
+   */
+  public PropertiesWatcher(PropertiesRepository pRepository, List<Path> pLayers, long pQuietPeriod) throws IOException {
+    this.repository = pRepository;
+    this.quietPeriod = pQuietPeriod;
+    this.watchService = FileSystems.getDefault().newWatchService();
+
+    for (Path layer : pLayers) {
+      if (Files.isDirectory(layer)) {
+        register(layer);
+      }
+    }
+  }
+
+  public void start() {
+    Thread thread = new Thread(this, "glue-reload");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public void close() {
+    closed = true;
+    try {
+      watchService.close();
+    } catch (IOException ex) {
+      logger.warn(() -> "Failed to close watch service", ex);
+    }
+  }
+
+  private void register(Path pDir) throws IOException {
+
+    List<Path> dirs;
+
+    try (Stream<Path> paths = Files.walk(pDir)) {
+      dirs = paths.filter(Files::isDirectory).collect(Collectors.toList());
+    }
+
+    for (Path dir : dirs) {
+      WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+      directories.put(key, dir);
+      logger.debug(() -> "Watching:" + dir);
+    }
+  }
+
+  @Override
+  public void run() {
+
+    while (!closed) {
+      try {
+        Set<Path> changed = new HashSet<>();
+        boolean overflow = collect(watchService.take(), changed);
+
+        WatchKey key;
+        while ((key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS)) != null) {
+          overflow |= collect(key, changed);
+        }
+
+        repository.reload(overflow ? null : changed);
+      } catch (InterruptedException | ClosedWatchServiceException ex) {
+        break;
+      } catch (RuntimeException ex) {
+        logger.error(() -> "Failed to reload configuration, keeping previous configuration", ex);
+      }
+    }
+
+  }
+
+  /**
+   * @param pKey
+   * @param pChanged Collects changed paths
+   * @return true if events were lost
+   */
+  private boolean collect(WatchKey pKey, Set<Path> pChanged) {
+
+    boolean overflow = false;
+    Path dir = directories.get(pKey);
+
+    for (WatchEvent<?> event : pKey.pollEvents()) {
+
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+        overflow = true;
+        continue;
+      }
+
+      Path path = dir.resolve((Path) event.context());
+
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+        try {
+          register(path);
+        } catch (IOException ex) {
+          logger.error(() -> "Failed to watch:" + path, ex);
+          overflow = true;
+        }
+      }
+
+      pChanged.add(path);
+    }
+
+    if (!pKey.reset()) {
+      directories.remove(pKey);
+    }
+
+    return overflow;
+  }
+
+}
@@ -0,0 +1,98 @@
+package vinscom.ioc;
+
+import com.google.common.base.Strings;
+import com.google.common.primitives.Primitives;
+import java.util.Optional;
+import vinscom.ioc.common.MethodInvoker;
+import vinscom.ioc.common.Util;
+
+/**
+ * Precomputed injection step of one property: setter to invoke and already parsed value.
+ *
+ * @author vinay
+ */
+public class PropertyPlan {
+
+  private final String name;
+  private final MethodInvoker setter;
+  private final ValueProxy value;
+  private final boolean shareValue;
+  private volatile Optional<Object> sharedValue;
+
+  public PropertyPlan(String pName, MethodInvoker pSetter, ValueProxy pValue) {
+    this(pName, pSetter, pValue, false);
+  }
+
+  /**
+   * @param pName
+   * @param pSetter
+   * @param pValue
+   * @param pShareValue If true, value is converted once and same value is given to every instance, if its converter
+   * can share it
+   */
+  public PropertyPlan(String pName, MethodInvoker pSetter, ValueProxy pValue, boolean pShareValue) {
+    this.name = pName;
+    this.setter = pSetter;
+    this.value = pValue;
+    this.shareValue = pShareValue
+            && !pValue.isDeferredValue()
+            && pValue.getConverter() != null
+            && !Strings.isNullOrEmpty(Util.getLastValueWithModifier(pValue.getPropertyValue()).getValue());
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public MethodInvoker getSetter() {
+    return setter;
+  }
+
+  /**
+   * @return Parsed value shared by all instances. Use {@link #newValue()} to get value for injection.
+   */
+  public ValueProxy getValue() {
+    return value;
+  }
+
+  public ValueProxy newValue() {
+
+    ValueProxy result = new ValueProxy(value);
+
+    if (shareValue) {
+      Optional<Object> shared = getSharedValue();
+      if (shared.isPresent()) {
+        result.setValue(shared.get());
+        result.setProcessed(true);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Convert value first time it is asked for. Threads converting at the same time create equal values.
+   *
+   * @return Value given to every instance, or empty if converter can't share value
+   */
+  private Optional<Object> getSharedValue() {
+
+    Optional<Object> shared = sharedValue;
+
+    if (shared == null) {
+      ValueProxy converted = new ValueProxy(value);
+      converted.process();
+      Object result = value.getConverter().share(converted.getValue());
+      shared = result != null && Primitives.wrap(value.getTargetClass()).isInstance(result) ? Optional.of(result) : Optional.empty();
+      sharedValue = shared;
+    }
+
+    return shared;
+  }
+
+  @Override
+  public String toString() {
+    return name + "=" + value;
+  }
+
+}
@@ -0,0 +1,160 @@
+package vinscom.ioc;
+
+import java.lang.reflect.InvocationTargetException;
+import vinscom.ioc.common.ClassMetadata;
+import vinscom.ioc.common.MethodInvoker;
+import vinscom.ioc.common.Util;
+
+/**
+ * Compiled <code>^=</code> reference, such as <code>/path/Component.a.b.c</code>. Reference is parsed once when plan
+ * is compiled, and getter of every property in chain is looked up once per class of object it is read from.
+ *
+ * Value read from GLOBAL component, after it is published, is kept with epoch it was read in, and used again by every
+ * instance till epoch changes.
+ *
+ * @author vinay
+ */
+public class PropertyReference {
+
+  private final String componentPath;
+  private final String property;
+  private final String[] getterNames;
+  private final String[] fallbackNames;
+  private final Getter[] getters;
+  private volatile Snapshot snapshot;
+
+  private PropertyReference(String pComponentPath, String pProperty, boolean pIsBoolean) {
+    this.componentPath = pComponentPath;
+    this.property = pProperty;
+
+    String[] chain = pProperty == null ? new String[0] : pProperty.split("\\.");
+
+    this.getterNames = new String[chain.length];
+    this.fallbackNames = new String[chain.length];
+    this.getters = new Getter[chain.length];
+
+    for (int i = 0; i < chain.length; i++) {
+      boolean isBoolean = pIsBoolean && i == chain.length - 1;
+      getterNames[i] = Util.buildGetPropertyName(chain[i], isBoolean);
+      fallbackNames[i] = Util.buildGetPropertyName(chain[i], !isBoolean);
+    }
+  }
+
+  /**
+   * @param pValue Value of property, such as <code>/path/Component</code> or <code>/path/Component.a.b</code>
+   * @param pTargetClass Class of property. Last getter of boolean property is <code>is</code> method, with
+   * <code>get</code> method as fallback.
+   * @return Compiled reference
+   */
+  public static PropertyReference compile(String pValue, Class<?> pTargetClass) {
+
+    boolean isBoolean = boolean.class.equals(pTargetClass) || Boolean.class.equals(pTargetClass);
+    int dot = pValue.indexOf('.');
+
+    if (dot < 0) {
+      return new PropertyReference(pValue, null, isBoolean);
+    }
+
+    return new PropertyReference(pValue.substring(0, dot), pValue.substring(dot + 1), isBoolean);
+  }
+
+  /**
+   * @param pComponent Component reference refers to
+   * @param pEpoch Epoch in which GLOBAL component was published, or negative if value must not be kept
+   * @return Component itself, or value of property chain read from it
+   */
+  public Object getValue(Object pComponent, long pEpoch) {
+
+    if (property == null) {
+      return pComponent;
+    }
+
+    Snapshot current = snapshot;
+
+    if (pEpoch >= 0 && current != null && current.component == pComponent && current.epoch == pEpoch) {
+      return current.value;
+    }
+
+    Object result = read(pComponent);
+
+    if (pEpoch >= 0) {
+      snapshot = new Snapshot(pComponent, pEpoch, result);
+    }
+
+    return result;
+  }
+
+  private Object read(Object pComponent) {
+
+    Object result = pComponent;
+
+    for (int i = 0; i < getters.length && result != null; i++) {
+      try {
+        result = getGetter(i, result.getClass()).invoke(result);
+      } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+        throw new RuntimeException("Component[" + componentPath + "]:Failed to read property " + property, ex);
+      }
+    }
+
+    return result;
+  }
+
+  private MethodInvoker getGetter(int pIndex, Class<?> pClass) {
+
+    Getter getter = getters[pIndex];
+
+    if (getter == null || getter.type != pClass) {
+      ClassMetadata metadata = ClassMetadata.of(pClass);
+      MethodInvoker invoker = metadata.getInvoker(getterNames[pIndex]);
+
+      if (invoker == null) {
+        invoker = metadata.getInvoker(fallbackNames[pIndex]);
+      }
+
+      if (invoker == null) {
+        throw new RuntimeException("Component[" + componentPath + "]:No " + getterNames[pIndex] + " method in class " + pClass.getName() + " for property " + property);
+      }
+
+      getter = new Getter(pClass, invoker);
+      getters[pIndex] = getter;
+    }
+
+    return getter.invoker;
+  }
+
+  public String getComponentPath() {
+    return componentPath;
+  }
+
+  /**
+   * @return Property chain, such as <code>a.b.c</code>, or null if reference is to component itself
+   */
+  public String getProperty() {
+    return property;
+  }
+
+  private static class Getter {
+
+    private final Class<?> type;
+    private final MethodInvoker invoker;
+
+    private Getter(Class<?> pType, MethodInvoker pInvoker) {
+      this.type = pType;
+      this.invoker = pInvoker;
+    }
+  }
+
+  private static class Snapshot {
+
+    private final Object component;
+    private final long epoch;
+    private final Object value;
+
+    private Snapshot(Object pComponent, long pEpoch, Object pValue) {
+      this.component = pComponent;
+      this.epoch = pEpoch;
+      this.value = pValue;
+    }
+  }
+
+}
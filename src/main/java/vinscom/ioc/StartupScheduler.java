@@ -0,0 +1,145 @@
+package vinscom.ioc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Starts set of components in parallel. Builds dependency graph of components from their compiled plans, and creates
+ * each GLOBAL component on executor as soon as all components it refers to are started. Independent sub trees are
+ * started concurrently, so total startup time approaches longest dependency chain instead of sum of all components.
+ *
+ * @author vinay
+ */
+public class StartupScheduler {
+
+  private static final Logger logger = LogManager.getLogger(StartupScheduler.class.getCanonicalName());
+
+  private final ComponentRepository repository;
+  private final Executor executor;
+
+  public StartupScheduler(ComponentRepository pRepository, Executor pExecutor) {
+    this.repository = pRepository;
+    this.executor = pExecutor;
+  }
+
+  /**
+   * Resolve all components and their dependencies. Calling thread waits till all are started, and components are
+   * resolved on its behalf, so component referring back to one under construction by calling thread fails instead of
+   * deadlocking.
+   *
+   * @param pPaths
+   * @return Resolved components, in same order as given paths
+   */
+  public List<Object> start(List<String> pPaths) {
+
+    Thread joiner = Thread.currentThread();
+    Map<String, ComponentPlan> graph = buildGraph(pPaths);
+    Map<String, CompletableFuture<Void>> started = new HashMap<>();
+
+    graph
+            .values()
+            .forEach((plan) -> started.put(plan.getPath(), schedule(plan, started, joiner)));
+
+    List<CompletableFuture<Object>> results = new ArrayList<>(pPaths.size());
+
+    for (String path : pPaths) {
+      results.add(started.get(path).thenApplyAsync((v) -> repository.resolveFor(joiner, path), executor));
+    }
+
+    List<Object> components = new ArrayList<>(results.size());
+
+    for (CompletableFuture<Object> result : results) {
+      components.add(join(result));
+    }
+
+    return components;
+  }
+
+  /**
+   * Schedule start of component once all of its dependencies are started. Only GLOBAL components are created ahead,
+   * LOCAL component is created by component referring to it.
+   */
+  private CompletableFuture<Void> schedule(ComponentPlan pPlan, Map<String, CompletableFuture<Void>> pStarted, Thread pJoiner) {
+
+    CompletableFuture<?>[] dependencies = pPlan
+            .getDependencies()
+            .stream()
+            .map(pStarted::get)
+            .filter((f) -> f != null)
+            .toArray(CompletableFuture[]::new);
+
+    CompletableFuture<Void> ready = CompletableFuture.allOf(dependencies);
+
+    if (ComponentScopeType.GLOBAL != pPlan.getScope()) {
+      return ready;
+    }
+
+    return ready.thenRunAsync(() -> {
+      logger.debug(() -> "Component[" + pPlan.getPath() + "]:Starting");
+      repository.resolveFor(pJoiner, pPlan.getPath());
+    }, executor);
+  }
+
+  /**
+   * Collects plans of all components reachable from given paths, in topological order: every component comes after
+   * components it depends on. Reference closing a cycle is left out of graph, and is resolved by component itself.
+   *
+   * @param pPaths
+   * @return Plans by path, dependencies first
+   */
+  protected Map<String, ComponentPlan> buildGraph(List<String> pPaths) {
+
+    Map<String, ComponentPlan> sorted = new LinkedHashMap<>();
+    Set<String> visiting = new HashSet<>();
+
+    for (String path : pPaths) {
+      visit(path, sorted, visiting);
+    }
+
+    return sorted;
+  }
+
+  private void visit(String pPath, Map<String, ComponentPlan> pSorted, Set<String> pVisiting) {
+
+    if (pSorted.containsKey(pPath)) {
+      return;
+    }
+
+    if (!pVisiting.add(pPath)) {
+      logger.debug(() -> "Component[" + pPath + "]:Cyclic dependency, left to component resolution");
+      return;
+    }
+
+    ComponentPlan plan = repository.getPlan(pPath);
+
+    for (String dependency : plan.getDependencies()) {
+      visit(dependency, pSorted, pVisiting);
+    }
+
+    pVisiting.remove(pPath);
+    pSorted.put(pPath, plan);
+  }
+
+  private Object join(CompletableFuture<Object> pResult) {
+    try {
+      return pResult.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+}
@@ -3,49 +3,58 @@ package vinscom.ioc;
 import com.google.common.base.Strings;
 import io.vertx.core.json.JsonObject;
 import java.io.File;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import vinscom.ioc.common.FileLoader;
 import vinscom.ioc.common.JsonLoader;
 import vinscom.ioc.common.Util;
 import vinscom.ioc.common.ValueWithModifier;
-import vinscom.ioc.component.ServiceArray;
-import vinscom.ioc.component.ServiceMap;
+import vinscom.ioc.converter.ConverterRegistry;
+import vinscom.ioc.converter.ValueConverter;
 import vinscom.ioc.enumeration.PropertyValueModifier;
 
 public class ValueProxy {
 
-  private static final Pattern DEFERRED_PROPERTY_VALUE_PATTER = Pattern.compile("(?<component>^[^.]+)($|(\\.(?<property>.*)$))");
-  private Class targetClass;
+  private Class<?> targetClass;
   private Collection<ValueWithModifier> propertyValue;
   private String componentPath;
+  private ValueConverter converter;
 
   private Object value;
-  private String deferredComponentPath;
-  private String deferredComponentProperty;
+  private PropertyReference reference;
   private Object deferredComponent;
+  private long deferredComponentEpoch = -1;
+  private boolean referenceResolved = false;
   private boolean deferredValue = false;
   private boolean processed = false;
 
   public ValueProxy() {
   }
 
-  public ValueProxy(Class pTargetClass, Collection<ValueWithModifier> pPropertyValue, String pComponentPath) {
+  public ValueProxy(Class<?> pTargetClass, Collection<ValueWithModifier> pPropertyValue, String pComponentPath) {
+    this(pTargetClass, pPropertyValue, pComponentPath, ConverterRegistry.getDefault());
+  }
+
+  /**
+   * @param pTargetClass Class of property
+   * @param pPropertyValue
+   * @param pComponentPath
+   * @param pConverters Converters of values. Value of class without converter refers to another component.
+   */
+  public ValueProxy(Class<?> pTargetClass, Collection<ValueWithModifier> pPropertyValue, String pComponentPath, ConverterRegistry pConverters) {
     this.targetClass = pTargetClass;
     this.propertyValue = pPropertyValue;
     this.componentPath = pComponentPath;
+    this.converter = pConverters.getConverter(pTargetClass);
 
     ValueWithModifier propValue = getLastValueWithModifier();
 
@@ -53,38 +62,48 @@ public class ValueProxy {
       deferredValue = true;
     }
 
-    if (!(targetClass.isArray()
-            || String.class.isAssignableFrom(targetClass)
-            || List.class.isAssignableFrom(targetClass)
-            || Map.class.isAssignableFrom(targetClass)
-            || Enum.class.isAssignableFrom(targetClass)
-            || boolean.class.isAssignableFrom(targetClass)
-            || Boolean.class.isAssignableFrom(targetClass)
-            || JsonObject.class.isAssignableFrom(targetClass)
-            || Set.class.isAssignableFrom(targetClass)
-            || ServiceMap.class.isAssignableFrom(targetClass)
-            || int.class.isAssignableFrom(targetClass)
-            || Integer.class.isAssignableFrom(targetClass)
-            || long.class.isAssignableFrom(targetClass)
-            || Long.class.isAssignableFrom(targetClass)
-            || File.class.isAssignableFrom(targetClass)
-            || Logger.class.isAssignableFrom(targetClass)
-            || ServiceArray.class.isAssignableFrom(targetClass)
-            || Strings.isNullOrEmpty(propValue.getValue()))) {
+    if (converter == null && !Strings.isNullOrEmpty(propValue.getValue())) {
       deferredValue = true;
     }
 
     if (deferredValue) {
-      Matcher m = DEFERRED_PROPERTY_VALUE_PATTER.matcher(propValue.getValue());
-      if (m.find()) {
-        deferredComponentPath = m.group("component");
-        deferredComponentProperty = m.group("property");
-      }
+      reference = PropertyReference.compile(Strings.nullToEmpty(propValue.getValue()), pTargetClass);
+    }
+  }
+
+  /**
+   * Creates new unprocessed proxy from already parsed proxy, without parsing value again.
+   *
+   * @param pTemplate
+   */
+  public ValueProxy(ValueProxy pTemplate) {
+    this.targetClass = pTemplate.targetClass;
+    this.propertyValue = pTemplate.propertyValue;
+    this.componentPath = pTemplate.componentPath;
+    this.converter = pTemplate.converter;
+    this.deferredValue = pTemplate.deferredValue;
+    this.reference = pTemplate.reference;
+  }
+
+  /**
+   * @return Path of component this value refers to directly. Members of ServiceMap or ServiceArray are resolved on first
+   * access, and may not be configured at all, so they are not included.
+   */
+  public List<String> getComponentReferences() {
+
+    if (isDeferredValue() && !Strings.isNullOrEmpty(getDeferredComponentPath())) {
+      return Collections.singletonList(getDeferredComponentPath());
     }
+
+    return Collections.emptyList();
   }
 
   public void process() {
 
+    if (isProcessed()) {
+      return;
+    }
+
     setProcessed(true);
 
     if (isDeferredValue()) {
@@ -96,45 +115,18 @@ public class ValueProxy {
       return;
     }
     
-    if (getTargetClass().isArray()) {
-      setValue(getValueAsArray());
-    } else if (String.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsString());
-    } else if (List.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsList());
-    } else if (Map.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsMap());
-    } else if (Enum.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsEnum());
-    } else if (boolean.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsboolean());
-    } else if (Boolean.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsBoolean());
-    } else if (JsonObject.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsJson());
-    } else if (Set.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsSet());
-    } else if (ServiceMap.class.isAssignableFrom(getTargetClass())) {
-      setValue(new ServiceMap(getValueAsMap()));
-    } else if (int.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsInt());
-    } else if (Integer.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsInteger());
-    } else if (long.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAslong());
-    } else if (Long.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsLong());
-    } else if (File.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsFile());
-    } else if (Logger.class.isAssignableFrom(getTargetClass())) {
-      setValue(getValueAsLogger());
-    } else if (ServiceArray.class.isAssignableFrom(getTargetClass())) {
-      setValue(new ServiceArray(getValueAsList()));
-    }
+    setValue(getConverter().convert(this));
 
   }
 
-  private Logger getValueAsLogger() {
+  /**
+   * @return Converter of value, or null if value refers to another component
+   */
+  public ValueConverter getConverter() {
+    return converter;
+  }
+
+  public Logger getValueAsLogger() {
     String loggerName = getComponentPath();
     if (loggerName.startsWith("/") && loggerName.length() >= 2) {
       loggerName = loggerName.substring(1);
@@ -142,39 +134,39 @@ public class ValueProxy {
     return LogManager.getLogger(loggerName.replace("/", "."));
   }
 
-  private File getValueAsFile() {
+  public File getValueAsFile() {
     return FileLoader.load(getComponentPath(), getValueAsString());
   }
 
-  private int getValueAsInt() {
+  public int getValueAsInt() {
     return Integer.parseInt(getLastValueWithModifier().getValue());
   }
 
-  private Integer getValueAsInteger() {
+  public Integer getValueAsInteger() {
     return getValueAsInt();
   }
 
-  private long getValueAslong() {
+  public long getValueAslong() {
     return Long.parseLong(getLastValueWithModifier().getValue());
   }
 
-  private Long getValueAsLong() {
+  public Long getValueAsLong() {
     return getValueAslong();
   }
 
-  private String[] getValueAsArray() {
+  public String[] getValueAsArray() {
     return getValueAsString().split(",");
   }
 
-  private String getValueAsString() {
+  public String getValueAsString() {
     return getLastValueWithModifier().getValue();
   }
 
-  private Set<String> getValueAsSet() {
+  public Set<String> getValueAsSet() {
 
     final Set<String> result = new HashSet<>();
 
-    List<ValueWithModifier> v = (List) getPropertyValue();
+    List<ValueWithModifier> v = (List<ValueWithModifier>) getPropertyValue();
     v.stream().forEach((vwm) -> {
       List<String> l = Arrays.asList(vwm.getValue().split(","));
       switch (vwm.getPropertyValueModifier()) {
@@ -194,11 +186,11 @@ public class ValueProxy {
 
   }
 
-  private List<String> getValueAsList() {
+  public List<String> getValueAsList() {
 
     final List<String> result = new ArrayList<>();
 
-    List<ValueWithModifier> v = (List) getPropertyValue();
+    List<ValueWithModifier> v = (List<ValueWithModifier>) getPropertyValue();
     v.stream().forEach((vwm) -> {
       List<String> l = Arrays.asList(vwm.getValue().split(","));
       switch (vwm.getPropertyValueModifier()) {
@@ -218,13 +210,13 @@ public class ValueProxy {
 
   }
 
-  private HashMap<String, String> getValueAsMap() {
+  public HashMap<String, String> getValueAsMap() {
 
     final HashMap<String, String> result = new HashMap<>();
 
-    List<ValueWithModifier> v = (List) getPropertyValue();
+    List<ValueWithModifier> v = (List<ValueWithModifier>) getPropertyValue();
     v.stream().forEach((vwm) -> {
-      Map m = Util.getMapFromValue(vwm.getValue());
+      Map<String, String> m = Util.getMapFromValue(vwm.getValue());
       switch (vwm.getPropertyValueModifier()) {
         case PLUS:
           result.putAll(m);
@@ -241,19 +233,24 @@ public class ValueProxy {
     return result;
   }
 
-  private Enum getValueAsEnum() {
-    return Enum.valueOf(getTargetClass(), getValueAsString());
+  public Enum<?> getValueAsEnum() {
+    return toEnum(getTargetClass().asSubclass(Enum.class), getValueAsString());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Enum<?> toEnum(Class<? extends Enum> pClass, String pName) {
+    return Enum.valueOf(pClass, pName);
   }
 
-  private Boolean getValueAsBoolean() {
+  public Boolean getValueAsBoolean() {
     return Boolean.valueOf(getValueAsString());
   }
 
-  private boolean getValueAsboolean() {
+  public boolean getValueAsboolean() {
     return Boolean.parseBoolean(getValueAsString());
   }
 
-  private JsonObject getValueAsJson() {
+  public JsonObject getValueAsJson() {
     return JsonLoader.load(getComponentPath(), getValueAsString());
   }
 
@@ -262,20 +259,9 @@ public class ValueProxy {
   }
 
   public Object getValue() {
-    if (isDeferredValue()) {
-      if (getDeferredComponentProperty() == null) {
-        setValue(getDeferredComponent());
-      } else {
-        String getValueMethodName = Util.buildGetPropertyName(getDeferredComponentProperty(),
-                boolean.class.isAssignableFrom(getTargetClass()) || Boolean.class.isAssignableFrom(getTargetClass()));
-        Method getValueMethod = Util.getMethod(getDeferredComponent().getClass(), getValueMethodName);
-        try {
-          Object getValue = getValueMethod.invoke(getDeferredComponent());
-          setValue(getValue);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-          throw new RuntimeException(ex);
-        }
-      }
+    if (isDeferredValue() && !referenceResolved) {
+      setValue(reference.getValue(getDeferredComponent(), deferredComponentEpoch));
+      referenceResolved = true;
     }
     return value;
   }
@@ -284,16 +270,16 @@ public class ValueProxy {
     this.value = pValue;
   }
 
-  public Class getTargetClass() {
+  public Class<?> getTargetClass() {
     return targetClass;
   }
 
-  public void setTargetClass(Class pTargetClass) {
+  public void setTargetClass(Class<?> pTargetClass) {
     this.targetClass = pTargetClass;
   }
 
   public String getDeferredComponentPath() {
-    return deferredComponentPath;
+    return reference == null ? null : reference.getComponentPath();
   }
 
   public Collection<ValueWithModifier> getPropertyValue() {
@@ -305,15 +291,25 @@ public class ValueProxy {
   }
 
   public void setDeferredComponentPath(String pDeferredComponentPath) {
-    this.deferredComponentPath = pDeferredComponentPath;
+    setReference(pDeferredComponentPath, getDeferredComponentProperty());
   }
 
   public String getDeferredComponentProperty() {
-    return deferredComponentProperty;
+    return reference == null ? null : reference.getProperty();
   }
 
   public void setDeferredComponentProperty(String pDeferredComponentProperty) {
-    this.deferredComponentProperty = pDeferredComponentProperty;
+    setReference(getDeferredComponentPath(), pDeferredComponentProperty);
+  }
+
+  private void setReference(String pComponentPath, String pProperty) {
+    String path = Strings.nullToEmpty(pComponentPath);
+    this.reference = PropertyReference.compile(pProperty == null ? path : path + "." + pProperty, getTargetClass());
+    this.referenceResolved = false;
+  }
+
+  public PropertyReference getReference() {
+    return reference;
   }
 
   public Object getDeferredComponent() {
@@ -321,7 +317,18 @@ public class ValueProxy {
   }
 
   public void setDeferredComponent(Object pDeferredComponent) {
+    setDeferredComponent(pDeferredComponent, -1);
+  }
+
+  /**
+   * @param pDeferredComponent
+   * @param pEpoch Epoch in which component was published as GLOBAL component, or negative. With epoch, value read from
+   * component is kept in reference and used by all instances, till epoch changes.
+   */
+  public void setDeferredComponent(Object pDeferredComponent, long pEpoch) {
     this.deferredComponent = pDeferredComponent;
+    this.deferredComponentEpoch = pEpoch;
+    this.referenceResolved = false;
   }
 
   public String getComponentPath() {
@@ -0,0 +1,174 @@
+package vinscom.ioc.common;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import vinscom.ioc.annotation.StartService;
+
+/**
+ * Reflective information of a component class, computed once per class and shared by every instance of that class.
+ *
+ * @author vinay
+ */
+public class ClassMetadata {
+
+  private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+    @Override
+    protected ClassMetadata computeValue(Class<?> pClass) {
+      return new ClassMetadata(pClass);
+    }
+  };
+
+  private final Class<?> type;
+  private final Map<String, Method> methods;
+  private final Map<String, Method> setters = new ConcurrentHashMap<>();
+  private final Map<String, Class<?>> setterArgumentClasses = new ConcurrentHashMap<>();
+  private final Map<String, MethodInvoker> invokers = new ConcurrentHashMap<>();
+  private final Method startMethod;
+  private final MethodInvoker startInvoker;
+  private final Constructor<?> constructor;
+
+  private ClassMetadata(Class<?> pClass) {
+    this.type = pClass;
+
+    Map<String, Method> methodByName = new HashMap<>();
+    Method start = null;
+
+    for (Method method : pClass.getMethods()) {
+      methodByName.putIfAbsent(method.getName(), method);
+      if (start == null && method.getAnnotation(StartService.class) != null) {
+        start = method;
+      }
+    }
+
+    this.methods = Collections.unmodifiableMap(methodByName);
+    this.startMethod = start;
+    this.startInvoker = start == null ? null : new MethodInvoker(start);
+    this.constructor = findConstructor(pClass);
+  }
+
+  public static ClassMetadata of(Class<?> pClass) {
+    return METADATA.get(pClass);
+  }
+
+  public static ClassMetadata forName(String pClass) {
+    return of(loadClass(pClass));
+  }
+
+  /**
+   * Classes are not cached by name, as same name can be different class in other class loader. Metadata is cached by
+   * class itself.
+   *
+   * @param pClass
+   * @return Class loaded by {@link Class#forName(java.lang.String)}
+   */
+  public static Class<?> loadClass(String pClass) {
+    try {
+      return Class.forName(pClass);
+    } catch (ClassNotFoundException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private static Constructor<?> findConstructor(Class<?> pClass) {
+    try {
+      return pClass.getDeclaredConstructor();
+    } catch (NoSuchMethodException | SecurityException ex) {
+      return null;
+    }
+  }
+
+  public Object newInstance() {
+
+    if (constructor == null) {
+      throw new RuntimeException("No default constructor in class:" + type.getName());
+    }
+
+    try {
+      return constructor.newInstance();
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * @param pMethodName
+   * @return First public method with given name, same as {@link Util#getMethod(java.lang.Class, java.lang.String)}
+   */
+  public Method getMethod(String pMethodName) {
+    return methods.get(pMethodName);
+  }
+
+  /**
+   * @param pProperty
+   * @return Setter method of property or null if class does not have setter for property
+   */
+  public Method getSetter(String pProperty) {
+    Method setter = setters.get(pProperty);
+
+    if (setter == null) {
+      setter = getMethod(Util.buildSetPropertyName(pProperty));
+      if (setter != null) {
+        setters.put(pProperty, setter);
+      }
+    }
+
+    return setter;
+  }
+
+  public Class<?> getSetterArgumentClass(String pProperty) {
+    Class<?> argument = setterArgumentClasses.get(pProperty);
+
+    if (argument == null) {
+      Method setter = getSetter(pProperty);
+      if (setter == null) {
+        return null;
+      }
+      argument = Util.getMethodFirstArgumentClass(setter);
+      setterArgumentClasses.put(pProperty, argument);
+    }
+
+    return argument;
+  }
+
+  /**
+   * @param pMethodName
+   * @return Invoker of method returned by {@link #getMethod(java.lang.String)} or null if there is no such method
+   */
+  public MethodInvoker getInvoker(String pMethodName) {
+    MethodInvoker invoker = invokers.get(pMethodName);
+
+    if (invoker == null) {
+      Method method = getMethod(pMethodName);
+      if (method == null) {
+        return null;
+      }
+      invoker = new MethodInvoker(method);
+      invokers.put(pMethodName, invoker);
+    }
+
+    return invoker;
+  }
+
+  public MethodInvoker getSetterInvoker(String pProperty) {
+    Method setter = getSetter(pProperty);
+    return setter == null ? null : getInvoker(setter.getName());
+  }
+
+  public Method getStartMethod() {
+    return startMethod;
+  }
+
+  public MethodInvoker getStartInvoker() {
+    return startInvoker;
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+}
@@ -0,0 +1,367 @@
+package vinscom.ioc.common;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only properties of one component, stored in flat arrays instead of list per property.
+ *
+ * Property names and values are interned, so same name or value, such as class name or path of commonly used component,
+ * is kept only once however many components use it. Values of property are stored next to each other, and
+ * <code>offsets[i]</code> is index of first value of property <code>names[i]</code>.
+ *
+ * Component based on other component, with $basedOn, shares properties of its parent and keeps only its own properties.
+ * Values of its own property follow values of same property of parent.
+ *
+ * @author vinay
+ */
+public class CompactProperties implements ListMultimap<String, ValueWithModifier> {
+
+  private static final Interner<String> NAMES = Interners.newWeakInterner();
+  private static final Interner<ValueWithModifier> VALUES = Interners.newWeakInterner();
+  private static final String[] NO_NAMES = new String[0];
+  private static final int[] NO_OFFSETS = new int[]{0};
+  private static final ValueWithModifier[] NO_VALUES = new ValueWithModifier[0];
+
+  private final CompactProperties parent;
+  private final String[] keys;
+  private final String[] names;
+  private final int[] offsets;
+  private final ValueWithModifier[] values;
+  private final int size;
+
+  private CompactProperties(CompactProperties pParent, String[] pNames, int[] pOffsets, ValueWithModifier[] pValues) {
+    this.parent = pParent;
+    this.names = pNames;
+    this.offsets = pOffsets;
+    this.values = pValues;
+
+    if (pParent == null) {
+      this.keys = pNames;
+      this.size = pValues.length;
+    } else {
+      Set<String> all = new LinkedHashSet<>(Arrays.asList(pParent.keys));
+      all.addAll(Arrays.asList(pNames));
+      this.keys = all.toArray(new String[all.size()]);
+      this.size = pParent.size + pValues.length;
+    }
+  }
+
+  /**
+   * @param pProperties
+   * @return Compact copy of properties, or same instance if properties are already compact
+   */
+  public static CompactProperties copyOf(Multimap<String, ValueWithModifier> pProperties) {
+
+    if (pProperties instanceof CompactProperties) {
+      return (CompactProperties) pProperties;
+    }
+
+    return create(null, pProperties);
+  }
+
+  /**
+   * @param pParent Properties of $basedOn component
+   * @param pProperties Own properties of component
+   * @return Properties of parent followed by own properties. Parent is shared, not copied.
+   */
+  public static CompactProperties derive(CompactProperties pParent, Multimap<String, ValueWithModifier> pProperties) {
+    return create(pParent, pProperties);
+  }
+
+  private static CompactProperties create(CompactProperties pParent, Multimap<String, ValueWithModifier> pProperties) {
+
+    if (pProperties.isEmpty()) {
+      return new CompactProperties(pParent, NO_NAMES, NO_OFFSETS, NO_VALUES);
+    }
+
+    Map<String, Collection<ValueWithModifier>> map = pProperties.asMap();
+    String[] names = new String[map.size()];
+    int[] offsets = new int[map.size() + 1];
+    ValueWithModifier[] values = new ValueWithModifier[pProperties.size()];
+
+    int name = 0;
+    int value = 0;
+
+    for (Map.Entry<String, Collection<ValueWithModifier>> entry : map.entrySet()) {
+      names[name] = NAMES.intern(entry.getKey());
+      offsets[name] = value;
+      for (ValueWithModifier v : entry.getValue()) {
+        values[value++] = intern(v);
+      }
+      name++;
+    }
+
+    offsets[name] = value;
+
+    return new CompactProperties(pParent, names, offsets, values);
+  }
+
+  /**
+   * @return Properties of $basedOn component, or null if component is not based on other component
+   */
+  public CompactProperties getParent() {
+    return parent;
+  }
+
+  private static ValueWithModifier intern(ValueWithModifier pValue) {
+    if (pValue.getValue() != null) {
+      pValue = new ValueWithModifier(NAMES.intern(pValue.getValue()), pValue.getPropertyValueModifier());
+    }
+    return VALUES.intern(pValue);
+  }
+
+  private int indexOf(Object pName) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(pName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private List<ValueWithModifier> valuesOf(int pIndex) {
+    return Collections.unmodifiableList(Arrays.asList(values).subList(offsets[pIndex], offsets[pIndex + 1]));
+  }
+
+  private List<ValueWithModifier> valuesOf(Object pName) {
+
+    int index = indexOf(pName);
+    List<ValueWithModifier> own = index < 0 ? Collections.emptyList() : valuesOf(index);
+    List<ValueWithModifier> inherited = parent == null ? Collections.emptyList() : parent.valuesOf(pName);
+
+    if (inherited.isEmpty()) {
+      return own;
+    }
+
+    if (own.isEmpty()) {
+      return inherited;
+    }
+
+    return new AbstractList<ValueWithModifier>() {
+      @Override
+      public ValueWithModifier get(int pIndex) {
+        return pIndex < inherited.size() ? inherited.get(pIndex) : own.get(pIndex - inherited.size());
+      }
+
+      @Override
+      public int size() {
+        return inherited.size() + own.size();
+      }
+    };
+  }
+
+  @Override
+  public List<ValueWithModifier> get(String pName) {
+    return valuesOf(pName);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object pName) {
+    return indexOf(pName) >= 0 || (parent != null && parent.containsKey(pName));
+  }
+
+  @Override
+  public boolean containsValue(Object pValue) {
+    return Arrays.asList(values).contains(pValue) || (parent != null && parent.containsValue(pValue));
+  }
+
+  @Override
+  public boolean containsEntry(Object pName, Object pValue) {
+    return valuesOf(pName).contains(pValue);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return new AbstractSet<String>() {
+      @Override
+      public Iterator<String> iterator() {
+        return Collections.unmodifiableList(Arrays.asList(keys)).iterator();
+      }
+
+      @Override
+      public boolean contains(Object pName) {
+        return containsKey(pName);
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+
+  @Override
+  public Multiset<String> keys() {
+    ImmutableMultiset.Builder<String> result = ImmutableMultiset.builder();
+    for (String key : keys) {
+      result.addCopies(key, valuesOf(key).size());
+    }
+    return result.build();
+  }
+
+  @Override
+  public Collection<ValueWithModifier> values() {
+    return new AbstractCollection<ValueWithModifier>() {
+      @Override
+      public Iterator<ValueWithModifier> iterator() {
+        return entries().stream().map(Map.Entry::getValue).iterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public Collection<Map.Entry<String, ValueWithModifier>> entries() {
+    return new AbstractCollection<Map.Entry<String, ValueWithModifier>>() {
+      @Override
+      public Iterator<Map.Entry<String, ValueWithModifier>> iterator() {
+        return Arrays
+                .stream(keys)
+                .flatMap((key) -> valuesOf(key).stream().map((value) -> (Map.Entry<String, ValueWithModifier>) new AbstractMap.SimpleImmutableEntry<>(key, value)))
+                .iterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public Map<String, Collection<ValueWithModifier>> asMap() {
+    return new AbstractMap<String, Collection<ValueWithModifier>>() {
+      @Override
+      public Collection<ValueWithModifier> get(Object pName) {
+        List<ValueWithModifier> result = valuesOf(pName);
+        return result.isEmpty() ? null : result;
+      }
+
+      @Override
+      public boolean containsKey(Object pName) {
+        return CompactProperties.this.containsKey(pName);
+      }
+
+      @Override
+      public Set<Map.Entry<String, Collection<ValueWithModifier>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Collection<ValueWithModifier>>>() {
+          @Override
+          public Iterator<Map.Entry<String, Collection<ValueWithModifier>>> iterator() {
+            return new Iterator<Map.Entry<String, Collection<ValueWithModifier>>>() {
+              private int index = 0;
+
+              @Override
+              public boolean hasNext() {
+                return index < keys.length;
+              }
+
+              @Override
+              public Map.Entry<String, Collection<ValueWithModifier>> next() {
+                if (!hasNext()) {
+                  throw new NoSuchElementException();
+                }
+                Map.Entry<String, Collection<ValueWithModifier>> entry = new AbstractMap.SimpleImmutableEntry<>(keys[index], valuesOf(keys[index]));
+                index++;
+                return entry;
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return keys.length;
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public boolean put(String pName, ValueWithModifier pValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object pName, Object pValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean putAll(String pName, Iterable<? extends ValueWithModifier> pValues) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean putAll(Multimap<? extends String, ? extends ValueWithModifier> pProperties) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public List<ValueWithModifier> replaceValues(String pName, Iterable<? extends ValueWithModifier> pValues) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public List<ValueWithModifier> removeAll(Object pName) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof Multimap)) {
+      return false;
+    }
+    return asMap().equals(((Multimap) pOther).asMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return asMap().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+}
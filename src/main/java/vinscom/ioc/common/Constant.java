@@ -7,6 +7,7 @@ public class Constant {
     public static final String CLASS = "$class";
     public static final String SCOPE = "$scope";
     public static final String BASED_ON = "$basedOn";
+    public static final String RELOAD = "$reload";
 
     public static class Path {
 
@@ -25,6 +26,19 @@ public class Constant {
 
     public static final String LAYERS = "glue.layers";
     public static final String SEPERATOR = ",";
+    public static final String BACKGROUND_INIT = "glue.init.background";
+    public static final String SNAPSHOT = "glue.snapshot";
+    public static final String LAZY_INIT = "glue.init.lazy";
+    public static final String RELOAD = "glue.reload";
+    public static final String RELOAD_INJECT = "glue.reload.inject";
+    public static final String JSON_CACHE_SIZE = "glue.json.cache.size";
+    public static final String SHARE_VALUES = "glue.value.share";
+    public static final String REFERENCE_SNAPSHOT = "glue.reference.snapshot";
+    public static final String EAGER_SERVICES = "glue.services.eager";
+    public static final String TRACE = "glue.trace";
+    public static final String FLIGHT_RECORDER = "glue.jfr";
+    public static final String METRICS = "glue.metrics";
+    public static final String FACTORIES = "glue.factories";
   }
 
 }
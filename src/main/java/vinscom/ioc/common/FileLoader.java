@@ -2,17 +2,18 @@ package vinscom.ioc.common;
 
 import java.util.List;
 
-import io.vertx.core.json.JsonObject;
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.stream.Collectors;
+import vinscom.ioc.trace.FlightEvents;
 
 public class FileLoader {
 
   public static List<String> layers;
+  /**
+   * Index of layers, used instead of checking every layer for file when it is built for same layers. Published only
+   * when index is kept up to date by reload, otherwise file added or edited while running would not be seen.
+   */
+  public static volatile LayerIndex index;
 
   static {
     layers = Util.getSystemLayers();
@@ -20,21 +21,34 @@ public class FileLoader {
 
   public static File load(String pComponentPath, String pFile) {
 
-    List<Path> filePaths = layers
+    Object event = FlightEvents.beginFileLookup();
+    String key = pComponentPath.substring(0, pComponentPath.lastIndexOf("/")) + "/" + pFile;
+    LayerIndex current = index;
+
+    if (current != null && current.getLayers().equals(layers)) {
+      LayerFile file = current.getFile(key);
+      FlightEvents.endFileLookup(event, FileLoader.class.getSimpleName(), key, 0, file == null ? 0 : 1, 0);
+      return file == null ? null : file.getPath().toFile();
+    }
+
+    List<File> filePaths = layers
             .stream()
             .map((p) -> {
-              return p + pComponentPath.substring(0, pComponentPath.lastIndexOf("/")) + "/" + pFile;
+              return p + key;
             })
             .map((p) -> {
-              return Paths.get(p);
+              return new File(p);
             })
             .filter((p) -> {
-              return Files.exists(p);
+              //Unlike Files.exists, doesn't throw and catch exception for every layer missing file
+              return p.exists();
             })
             .collect(Collectors.toList());
 
+    FlightEvents.endFileLookup(event, FileLoader.class.getSimpleName(), key, layers.size(), filePaths.size(), 0);
+
     if (filePaths.size() > 0) {
-      return filePaths.get(filePaths.size() - 1).toFile();
+      return filePaths.get(filePaths.size() - 1);
     }
 
     return null;
@@ -2,39 +2,91 @@ package vinscom.ioc.common;
 
 import java.util.List;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.vertx.core.json.JsonObject;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import vinscom.ioc.trace.FlightEvents;
 
 public class JsonLoader {
 
   public static List<String> layers;
+  /**
+   * Index of layers, used instead of checking every layer for file when it is built for same layers. Published only
+   * when index is kept up to date by reload, otherwise file added or edited while running would not be seen.
+   */
+  public static volatile LayerIndex index;
+  private static final long DEFAULT_CACHE_SIZE = 1024;
+  private static final Cache<String, CachedJson> cache;
 
   static {
     layers = Util.getSystemLayers();
+    cache = CacheBuilder
+            .newBuilder()
+            .maximumSize(Long.getLong(Constant.SystemProperties.JSON_CACHE_SIZE, DEFAULT_CACHE_SIZE))
+            .build();
   }
-  
+
+  /**
+   * Merged JSON of all layers is cached by directory of component and file name, and read again only if any of files
+   * is added, removed or modified. Every call gets its own copy, so caller can change it. With index of layers, files
+   * and their modification time come from index, without file system access.
+   *
+   * @param pComponentPath
+   * @param pFile
+   * @return Merged JSON of file found in all layers
+   */
   public static JsonObject load(String pComponentPath, String pFile) {
 
-    return layers
+    Object event = FlightEvents.beginFileLookup();
+    String key = pComponentPath.substring(0, pComponentPath.lastIndexOf("/")) + "/" + pFile;
+
+    LayerIndex current = index;
+    boolean indexed = current != null && current.getLayers().equals(layers);
+    List<LayerFile> files = indexed ? current.getFiles(key) : find(key);
+    CachedJson cached = cache.getIfPresent(key);
+    long bytesRead = 0;
+
+    if (cached == null || !cached.files.equals(files)) {
+      cached = new CachedJson(files, read(files));
+      cache.put(key, cached);
+      bytesRead = files.stream().mapToLong(LayerFile::getSize).sum();
+    }
+
+    JsonObject result = cached.json.copy();
+    FlightEvents.endFileLookup(event, JsonLoader.class.getSimpleName(), key, indexed ? 0 : layers.size(), files.size(), bytesRead);
+
+    return result;
+  }
+
+  /**
+   * Remove all cached JSON.
+   */
+  public static void clear() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * @param pFiles JSON files, read as UTF-8
+   * @return Merged JSON
+   * @throws UncheckedIOException If any file can't be read
+   */
+  private static JsonObject read(List<LayerFile> pFiles) {
+    return pFiles
             .stream()
-            .map((p) -> {
-              return p + pComponentPath.substring(0, pComponentPath.lastIndexOf("/")) + "/" + pFile;
-            })
-            .map((p) -> {
-              return Paths.get(p);
-            })
-            .filter((p) -> {
-              return Files.exists(p);
-            })
-            .map((p) -> {
-              String result = "";
+            .map((f) -> {
               try {
-                result = new String(Files.readAllBytes(p));
+                return new String(Files.readAllBytes(f.getPath()), StandardCharsets.UTF_8);
               } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read JSON file:" + f.getPath(), ex);
               }
-              return result;
             })
             .map((s) -> {
               return new JsonObject(s);
@@ -42,6 +94,27 @@ public class JsonLoader {
             .collect(JsonObject::new, JsonLoader::accumulator, JsonLoader::combine);
   }
 
+  /**
+   * @param pPath Path relative to layer
+   * @return File in every layer having it, with its modification time and size
+   */
+  private static List<LayerFile> find(String pPath) {
+
+    List<LayerFile> result = new ArrayList<>();
+
+    for (String layer : layers) {
+      Path file = Paths.get(layer + pPath);
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        result.add(new LayerFile(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+      } catch (IOException ex) {
+        //Not in this layer
+      }
+    }
+
+    return result;
+  }
+
   public static JsonObject accumulator(JsonObject acc, JsonObject json) {
     return acc.mergeIn(json, true);
   }
@@ -49,4 +122,15 @@ public class JsonLoader {
   public static JsonObject combine(JsonObject json1, JsonObject json2) {
     return json1.mergeIn(json2, true);
   }
+
+  private static class CachedJson {
+
+    private final List<LayerFile> files;
+    private final JsonObject json;
+
+    private CachedJson(List<LayerFile> pFiles, JsonObject pJson) {
+      this.files = pFiles;
+      this.json = pJson;
+    }
+  }
 }
@@ -0,0 +1,57 @@
+package vinscom.ioc.common;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * File found in configuration layer, with modification time and size seen when it was found.
+ *
+ * @author vinay
+ */
+public class LayerFile {
+
+  private final Path path;
+  private final long lastModified;
+  private final long size;
+
+  public LayerFile(Path pPath, long pLastModified, long pSize) {
+    this.path = pPath;
+    this.lastModified = pLastModified;
+    this.size = pSize;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof LayerFile)) {
+      return false;
+    }
+    LayerFile other = (LayerFile) pOther;
+    return lastModified == other.lastModified && size == other.size && path.equals(other.path);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, lastModified, size);
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+}
@@ -0,0 +1,210 @@
+package vinscom.ioc.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Files of all configuration layers by path relative to layer, such as /vinscom/ioc/test/component/testconfig.json.
+ *
+ * Index is built from same directory walk which finds properties files, so file lookup needs no file system access.
+ * Index is immutable; change in layers creates new index.
+ *
+ * @author vinay
+ */
+public class LayerIndex {
+
+  private final List<String> layers;
+  private final Map<String, LayerFile[]> files;
+
+  private LayerIndex(List<String> pLayers, Map<String, LayerFile[]> pFiles) {
+    this.layers = pLayers;
+    this.files = pFiles;
+  }
+
+  public List<String> getLayers() {
+    return layers;
+  }
+
+  /**
+   * @param pPath Path relative to layer
+   * @return File in every layer having it, in layer order
+   */
+  public List<LayerFile> getFiles(String pPath) {
+
+    LayerFile[] result = files.get(pPath);
+
+    if (result == null) {
+      return Collections.emptyList();
+    }
+
+    List<LayerFile> list = new ArrayList<>(result.length);
+
+    for (LayerFile file : result) {
+      if (file != null) {
+        list.add(file);
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * @param pPath Path relative to layer
+   * @return File of last layer having it, or null if no layer has it
+   */
+  public LayerFile getFile(String pPath) {
+
+    LayerFile[] result = files.get(pPath);
+
+    if (result != null) {
+      for (int i = result.length - 1; i >= 0; i--) {
+        if (result[i] != null) {
+          return result[i];
+        }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * @param pPaths Files or directories added, modified or deleted
+   * @return New index reflecting current state of given paths
+   */
+  public LayerIndex update(Collection<Path> pPaths) {
+
+    Map<String, LayerFile[]> result = new HashMap<>(files);
+
+    for (Path path : pPaths) {
+
+      int layer = findLayer(path);
+
+      if (layer < 0) {
+        continue;
+      }
+
+      int prefix = Paths.get(layers.get(layer)).toString().length();
+      String relative = path.toString().substring(prefix);
+
+      //File or whole directory deleted
+      for (String key : new ArrayList<>(result.keySet())) {
+        if (key.equals(relative) || key.startsWith(relative + "/")) {
+          put(result, key, layer, null);
+        }
+      }
+
+      if (Files.exists(path)) {
+        try (Stream<Path> paths = Files.walk(path)) {
+          paths.forEach((p) -> {
+            try {
+              BasicFileAttributes attributes = Files.readAttributes(p, BasicFileAttributes.class);
+              if (attributes.isRegularFile()) {
+                put(result, p.toString().substring(prefix), layer, new LayerFile(p, attributes.lastModifiedTime().toMillis(), attributes.size()));
+              }
+            } catch (IOException ex) {
+              //Deleted meanwhile
+            }
+          });
+        } catch (IOException ex) {
+          //Deleted meanwhile
+        }
+      }
+    }
+
+    return new LayerIndex(layers, result);
+  }
+
+  /**
+   * @param pLayers Configuration layers
+   * @return Position of each layer by its normalized path, so layer given as <code>layer1/</code> or
+   * <code>./layer1</code> is found from path of its files
+   */
+  public static Map<Path, Integer> toLayerOrder(List<String> pLayers) {
+
+    Map<Path, Integer> result = new HashMap<>();
+
+    for (int i = 0; i < pLayers.size(); i++) {
+      result.putIfAbsent(Paths.get(pLayers.get(i)).normalize(), i);
+    }
+
+    return result;
+  }
+
+  private int findLayer(Path pPath) {
+    for (int i = layers.size() - 1; i >= 0; i--) {
+      if (pPath.startsWith(Paths.get(layers.get(i)))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void put(Map<String, LayerFile[]> pFiles, String pPath, int pLayer, LayerFile pFile) {
+
+    LayerFile[] current = pFiles.get(pPath);
+    LayerFile[] result = current == null ? new LayerFile[layers.size()] : current.clone();
+    result[pLayer] = pFile;
+
+    for (LayerFile file : result) {
+      if (file != null) {
+        pFiles.put(pPath, result);
+        return;
+      }
+    }
+
+    pFiles.remove(pPath);
+  }
+
+  /**
+   * Collects files found while walking layers. Layers can be walked in parallel.
+   */
+  public static class Builder {
+
+    private final List<String> layers;
+    private final Map<Path, Integer> order;
+    private final List<Map<String, LayerFile>> files = new ArrayList<>();
+
+    public Builder(List<String> pLayers) {
+      this.layers = pLayers;
+      this.order = toLayerOrder(pLayers);
+      pLayers.forEach((l) -> files.add(new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * @param pLayer
+     * @param pFile File in layer
+     * @param pAttributes Attributes of file
+     */
+    public void add(Path pLayer, Path pFile, BasicFileAttributes pAttributes) {
+      Integer layer = order.get(pLayer.normalize());
+      if (layer != null) {
+        files.get(layer).put(pFile.toString().substring(pLayer.toString().length()), new LayerFile(pFile, pAttributes.lastModifiedTime().toMillis(), pAttributes.size()));
+      }
+    }
+
+    public LayerIndex build() {
+
+      Map<String, LayerFile[]> result = new HashMap<>();
+
+      for (int layer = 0; layer < files.size(); layer++) {
+        for (Map.Entry<String, LayerFile> entry : files.get(layer).entrySet()) {
+          result.computeIfAbsent(entry.getKey(), (k) -> new LayerFile[layers.size()])[layer] = entry.getValue();
+        }
+      }
+
+      return new LayerIndex(layers, result);
+    }
+  }
+
+}
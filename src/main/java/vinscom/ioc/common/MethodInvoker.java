@@ -0,0 +1,153 @@
+package vinscom.ioc.common;
+
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Invokes setter, getter or start method through a {@link MethodHandle} adapted to a fixed erased type, so call site
+ * stays monomorphic and primitive arguments are unboxed by handle itself. Falls back to reflection if method can't be
+ * unreflected.
+ *
+ * Failures are reported like {@link Method#invoke(Object, Object...)}: instance or argument of wrong type gives
+ * {@link IllegalArgumentException}, and only exception thrown by method itself is wrapped in
+ * {@link InvocationTargetException}.
+ *
+ * @author vinay
+ */
+public class MethodInvoker {
+
+  private static final Logger logger = LogManager.getLogger(MethodInvoker.class.getCanonicalName());
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Method method;
+  private final String name;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public MethodInvoker(Method pMethod) {
+    this.method = pMethod;
+    this.name = pMethod.getName();
+
+    MethodHandle handle = unreflect(pMethod);
+    int paramCount = pMethod.getParameterCount();
+
+    this.getter = (handle != null && paramCount == 0) ? handle.asType(GETTER_TYPE) : null;
+    this.setter = (handle != null && paramCount == 1) ? handle.asType(SETTER_TYPE) : null;
+  }
+
+  /**
+   * Invoker of method called without reflection, such as by generated factory. Sub class overrides both invoke methods.
+   *
+   * @param pName Name of method
+   */
+  protected MethodInvoker(String pName) {
+    this.method = null;
+    this.name = pName;
+    this.getter = null;
+    this.setter = null;
+  }
+
+  private static MethodHandle unreflect(Method pMethod) {
+    try {
+      return LOOKUP.unreflect(pMethod);
+    } catch (IllegalAccessException ex) {
+      logger.debug(() -> "Using reflection for method:" + pMethod);
+      return null;
+    }
+  }
+
+  /**
+   * Invoke method without arguments, such as getter or start method.
+   *
+   * @param pInstance
+   * @return Value returned by method, or null if method is void
+   * @throws IllegalAccessException
+   * @throws InvocationTargetException
+   */
+  public Object invoke(Object pInstance) throws IllegalAccessException, InvocationTargetException {
+
+    if (getter == null) {
+      return method.invoke(pInstance);
+    }
+
+    try {
+      return (Object) getter.invokeExact(pInstance);
+    } catch (ClassCastException | NullPointerException | WrongMethodTypeException ex) {
+      if (!isInstance(method.getDeclaringClass(), pInstance)) {
+        throw mismatch(pInstance, ex);
+      }
+      throw new InvocationTargetException(ex);
+    } catch (Throwable ex) {
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+  /**
+   * Invoke method with single argument, such as setter.
+   *
+   * @param pInstance
+   * @param pValue
+   * @throws IllegalAccessException
+   * @throws InvocationTargetException
+   */
+  public void invoke(Object pInstance, Object pValue) throws IllegalAccessException, InvocationTargetException {
+
+    if (setter == null) {
+      method.invoke(pInstance, pValue);
+      return;
+    }
+
+    try {
+      setter.invokeExact(pInstance, pValue);
+    } catch (ClassCastException | NullPointerException | WrongMethodTypeException ex) {
+      if (!isInstance(method.getDeclaringClass(), pInstance) || !isAssignable(method.getParameterTypes()[0], pValue)) {
+        throw mismatch(pValue, ex);
+      }
+      throw new InvocationTargetException(ex);
+    } catch (Throwable ex) {
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+  private IllegalArgumentException mismatch(Object pValue, Throwable pCause) {
+    String type = pValue == null ? "null" : pValue.getClass().getName();
+    return new IllegalArgumentException("Argument type mismatch for method " + method + ":" + type, pCause);
+  }
+
+  private static boolean isInstance(Class<?> pClass, Object pInstance) {
+    return pInstance != null && pClass.isInstance(pInstance);
+  }
+
+  /**
+   * @param pParameter Parameter type of method
+   * @param pValue Argument
+   * @return true if handle adapted to erased type accepts argument, same as reflection would
+   */
+  public static boolean isAssignable(Class<?> pParameter, Object pValue) {
+    if (pValue == null) {
+      return !pParameter.isPrimitive();
+    }
+    return Primitives.wrap(pParameter).isInstance(pValue);
+  }
+
+  /**
+   * @return Method, or null if method is called without reflection
+   */
+  public Method getMethod() {
+    return method;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+}
@@ -0,0 +1,80 @@
+package vinscom.ioc.common;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Properties file found in configuration layer, together with entries parsed from it.
+ *
+ * @author vinay
+ */
+public class PropertiesFile {
+
+  private final Path layer;
+  private final Path path;
+  private final String componentPath;
+  private final long lastModified;
+  private final long size;
+  private List<Tuple<String, ValueWithModifier>> entries;
+
+  public PropertiesFile(Path pLayer, Path pPath, String pComponentPath) {
+    this(pLayer, pPath, pComponentPath, 0, 0);
+  }
+
+  public PropertiesFile(Path pLayer, Path pPath, String pComponentPath, long pLastModified, long pSize) {
+    this.layer = pLayer;
+    this.path = pPath;
+    this.componentPath = pComponentPath;
+    this.lastModified = pLastModified;
+    this.size = pSize;
+  }
+
+  public Path getLayer() {
+    return layer;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * @return Path of component defined by this file, such as /vinscom/ioc/test/component/PropertiesComponent
+   */
+  public String getComponentPath() {
+    return componentPath;
+  }
+
+  /**
+   * @return Last modification time in milliseconds, as seen when file was found
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * @return Property name and value with modifier, in order they are merged into component properties. Empty if file
+   * is not loaded yet.
+   */
+  public List<Tuple<String, ValueWithModifier>> getEntries() {
+    return entries == null ? Collections.emptyList() : entries;
+  }
+
+  public boolean isLoaded() {
+    return entries != null;
+  }
+
+  public void setEntries(List<Tuple<String, ValueWithModifier>> pEntries) {
+    this.entries = pEntries;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+}
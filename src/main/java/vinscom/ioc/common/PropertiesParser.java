@@ -0,0 +1,359 @@
+package vinscom.ioc.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+
+/**
+ * Parser of properties file, following syntax of {@link java.util.Properties#load(java.io.Reader)}.
+ *
+ * File is read into buffer reused by thread, or memory mapped if it is large, and tokenized in single pass into property
+ * name, modifier and value. Buffer grown for file larger than 64 KB is used for that file only, and is not kept by
+ * thread. Entries are returned in order they appear in file. As with {@link java.util.Properties}, property repeated in
+ * file with same modifier keeps only its last value, at place of its first occurrence. Unlike
+ * {@link java.util.Properties}, file handle is always closed, and malformed entry is reported with file and line.
+ *
+ * @author vinay
+ */
+public class PropertiesParser {
+
+  private static final int MAP_THRESHOLD = 1 << 20;
+  private static final int INITIAL_BUFFER_SIZE = 1 << 13;
+  private static final int RETAINED_BUFFER_SIZE = 1 << 16;
+
+  private static final ThreadLocal<ByteBuffer> BYTE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+  private static final ThreadLocal<CharBuffer> CHAR_BUFFER = ThreadLocal.withInitial(() -> CharBuffer.allocate(INITIAL_BUFFER_SIZE));
+  private static final ThreadLocal<CharsetDecoder> DECODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT));
+
+  private final String source;
+  private final CharBuffer text;
+  private final StringBuilder key = new StringBuilder();
+  private final StringBuilder value = new StringBuilder();
+  private int line = 1;
+
+  private PropertiesParser(String pSource, CharBuffer pText) {
+    this.source = pSource;
+    this.text = pText;
+  }
+
+  /**
+   * Parse properties file.
+   *
+   * @param pFile
+   * @return Property name and value with modifier, in file order
+   * @throws IOException If file can't be read
+   */
+  public static List<Tuple<String, ValueWithModifier>> parse(Path pFile) throws IOException {
+    return new PropertiesParser(pFile.toString(), read(pFile)).parse();
+  }
+
+  /**
+   * Parse properties text.
+   *
+   * @param pSource Name of source, used in error messages
+   * @param pText
+   * @return Property name and value with modifier, in text order
+   */
+  public static List<Tuple<String, ValueWithModifier>> parse(String pSource, CharSequence pText) {
+    return new PropertiesParser(pSource, CharBuffer.wrap(pText)).parse();
+  }
+
+  private static CharBuffer read(Path pFile) throws IOException {
+
+    ByteBuffer bytes;
+
+    try (FileChannel channel = FileChannel.open(pFile, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(pFile + ": File too large");
+      }
+
+      if (size >= MAP_THRESHOLD) {
+        bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        bytes = BYTE_BUFFER.get();
+        if (bytes.capacity() < size) {
+          bytes = ByteBuffer.allocate(Integer.highestOneBit((int) size) << 1);
+          if (bytes.capacity() <= RETAINED_BUFFER_SIZE) {
+            BYTE_BUFFER.set(bytes);
+          }
+        }
+        bytes.clear();
+        bytes.limit((int) size);
+        while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+          //Read till buffer is full
+        }
+        bytes.flip();
+      }
+    }
+
+    return decode(pFile, bytes);
+  }
+
+  private static CharBuffer decode(Path pFile, ByteBuffer pBytes) throws IOException {
+
+    CharsetDecoder decoder = DECODER.get();
+    CharBuffer chars = CHAR_BUFFER.get();
+    int required = (int) (pBytes.remaining() * (double) decoder.maxCharsPerByte());
+
+    if (chars.capacity() < required) {
+      chars = CharBuffer.allocate(required);
+      if (required <= RETAINED_BUFFER_SIZE) {
+        CHAR_BUFFER.set(chars);
+      }
+    }
+
+    chars.clear();
+    decoder.reset();
+
+    if (decoder.decode(pBytes, chars, true).isError() || decoder.flush(chars).isError()) {
+      throw new IOException(pFile + ": Not a valid UTF-8 file");
+    }
+
+    chars.flip();
+    return chars;
+  }
+
+  private List<Tuple<String, ValueWithModifier>> parse() {
+
+    //By name with modifier, as key of java.util.Properties
+    Map<String, Tuple<String, ValueWithModifier>> result = new LinkedHashMap<>();
+
+    while (text.hasRemaining()) {
+
+      skipWhitespace();
+
+      if (!text.hasRemaining()) {
+        break;
+      }
+
+      char c = text.get(text.position());
+
+      if (isLineEnd(c)) {
+        skipLineEnd();
+        continue;
+      }
+
+      if (c == '#' || c == '!') {
+        skipComment();
+        continue;
+      }
+
+      int entryLine = line;
+      readKey();
+      readValue();
+      result.put(key.toString(), toEntry(entryLine));
+    }
+
+    return new ArrayList<>(result.values());
+  }
+
+  private Tuple<String, ValueWithModifier> toEntry(int pLine) {
+
+    int length = key.length();
+    PropertyValueModifier modifier = PropertyValueModifier.NONE;
+
+    if (length > 0) {
+      switch (key.charAt(length - 1)) {
+        case '+':
+          modifier = PropertyValueModifier.PLUS;
+          break;
+        case '-':
+          modifier = PropertyValueModifier.MINUS;
+          break;
+        case '^':
+          modifier = PropertyValueModifier.FROM;
+          break;
+        default:
+          break;
+      }
+    }
+
+    if (modifier != PropertyValueModifier.NONE) {
+      length--;
+    }
+
+    if (length == 0) {
+      throw error(pLine, "Property without name");
+    }
+
+    return new Tuple<>(key.substring(0, length), new ValueWithModifier(value.toString(), modifier));
+  }
+
+  private void readKey() {
+
+    key.setLength(0);
+
+    while (text.hasRemaining()) {
+      char c = text.get();
+
+      if (c == '\\') {
+        if (!readEscape(key)) {
+          skipWhitespace();
+        }
+        continue;
+      }
+
+      if (c == '=' || c == ':') {
+        skipWhitespace();
+        return;
+      }
+
+      if (isLineEnd(c)) {
+        text.position(text.position() - 1);
+        return;
+      }
+
+      if (isWhitespace(c)) {
+        skipWhitespace();
+        if (text.hasRemaining()) {
+          char separator = text.get(text.position());
+          if (separator == '=' || separator == ':') {
+            text.get();
+            skipWhitespace();
+          }
+        }
+        return;
+      }
+
+      key.append(c);
+    }
+  }
+
+  private void readValue() {
+
+    value.setLength(0);
+
+    while (text.hasRemaining()) {
+      char c = text.get();
+
+      if (c == '\\') {
+        if (!readEscape(value)) {
+          skipWhitespace();
+        }
+        continue;
+      }
+
+      if (isLineEnd(c)) {
+        text.position(text.position() - 1);
+        skipLineEnd();
+        return;
+      }
+
+      value.append(c);
+    }
+  }
+
+  /**
+   * Read character after backslash.
+   *
+   * @param pTarget
+   * @return false if backslash continued line
+   */
+  private boolean readEscape(StringBuilder pTarget) {
+
+    if (!text.hasRemaining()) {
+      return false;
+    }
+
+    char c = text.get();
+
+    switch (c) {
+      case '\r':
+      case '\n':
+        text.position(text.position() - 1);
+        skipLineEnd();
+        return false;
+      case 't':
+        pTarget.append('\t');
+        break;
+      case 'n':
+        pTarget.append('\n');
+        break;
+      case 'r':
+        pTarget.append('\r');
+        break;
+      case 'f':
+        pTarget.append('\f');
+        break;
+      case 'u':
+        pTarget.append(readUnicode());
+        break;
+      default:
+        pTarget.append(c);
+    }
+
+    return true;
+  }
+
+  private char readUnicode() {
+
+    int result = 0;
+
+    for (int i = 0; i < 4; i++) {
+      int digit = text.hasRemaining() ? Character.digit(text.get(), 16) : -1;
+      if (digit < 0) {
+        throw error(line, "Malformed \\uxxxx encoding");
+      }
+      result = (result << 4) + digit;
+    }
+
+    return (char) result;
+  }
+
+  private void skipComment() {
+    while (text.hasRemaining() && !isLineEnd(text.get(text.position()))) {
+      text.get();
+    }
+    skipLineEnd();
+  }
+
+  private void skipWhitespace() {
+    while (text.hasRemaining() && isWhitespace(text.get(text.position()))) {
+      text.get();
+    }
+  }
+
+  private void skipLineEnd() {
+
+    if (!text.hasRemaining()) {
+      return;
+    }
+
+    char c = text.get();
+
+    if (c == '\r' && text.hasRemaining() && text.get(text.position()) == '\n') {
+      text.get();
+    }
+
+    line++;
+  }
+
+  private static boolean isWhitespace(char pChar) {
+    return pChar == ' ' || pChar == '\t' || pChar == '\f';
+  }
+
+  private static boolean isLineEnd(char pChar) {
+    return pChar == '\n' || pChar == '\r';
+  }
+
+  private RuntimeException error(int pLine, String pMessage) {
+    return new RuntimeException(source + ":" + pLine + ": " + pMessage);
+  }
+
+}
@@ -8,6 +8,7 @@ public class PropertyContext {
   private String componentPath;
   private Object instance;
   private Method method;
+  private MethodInvoker invoker;
   private ValueProxy value;
 
   public Object getInstance() {
@@ -26,6 +27,15 @@ public class PropertyContext {
     this.method = method;
   }
 
+  public MethodInvoker getInvoker() {
+    return invoker;
+  }
+
+  public void setInvoker(MethodInvoker pInvoker) {
+    this.invoker = pInvoker;
+    this.method = pInvoker.getMethod();
+  }
+
   public ValueProxy getValue() {
     return value;
   }
@@ -36,13 +36,11 @@ public class Util {
 
     logger.debug(() -> "Trying to find Method:" + pMethodName + " in class:" + pClass.getCanonicalName());
 
-    Method[] methods = pClass.getMethods();
+    Method method = ClassMetadata.of(pClass).getMethod(pMethodName);
 
-    for (Method method : methods) {
-      if (method.getName().equals(pMethodName)) {
-        logger.debug(() -> "Found Method:" + pMethodName + " in class:" + pClass.getCanonicalName());
-        return method;
-      }
+    if (method != null) {
+      logger.debug(() -> "Found Method:" + pMethodName + " in class:" + pClass.getCanonicalName());
+      return method;
     }
 
     logger.debug(() -> "Not Found Method:" + pMethodName + " in class:" + pClass.getCanonicalName());
@@ -64,7 +62,7 @@ public class Util {
     return null;
   }
 
-  public static Class getMethodFirstArgumentClass(Method pMethod){
+  public static Class<?> getMethodFirstArgumentClass(Method pMethod){
     Parameter[] param = pMethod.getParameters();
     if(param.length == 0){
       throw new RuntimeException("No arguments in method:" + pMethod.getName());
@@ -72,19 +70,8 @@ public class Util {
     return param[0].getType();
   }
 
-  @SuppressWarnings("rawtypes")
   public static Object createInstance(String pClass) {
-
-    Object inst = null;
-
-    try {
-      Class clzz = Class.forName(pClass);
-      inst = clzz.newInstance();
-    } catch (ClassNotFoundException | InstantiationException | IllegalAccessException ex) {
-      throw new RuntimeException(ex);
-    }
-
-    return inst;
+    return ClassMetadata.forName(pClass).newInstance();
   }
 
   public static Map<String, String> getMapFromValue(String pValue) {
@@ -116,7 +103,7 @@ public class Util {
       return new ValueWithModifier(null, PropertyValueModifier.NONE);
     }
     
-    List<ValueWithModifier> v = (List)pList;
+    List<ValueWithModifier> v = (List<ValueWithModifier>) pList;
     return v.get(v.size() - 1);
   }
   
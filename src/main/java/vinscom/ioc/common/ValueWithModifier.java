@@ -1,22 +1,50 @@
 package vinscom.ioc.common;
 
+import java.util.Objects;
 import vinscom.ioc.enumeration.PropertyValueModifier;
 
 /**
+ * Value of property with its modifier. Immutable, so same instance can be shared by components and threads.
  *
  * @author vinay
  */
-public class ValueWithModifier extends Tuple<String, PropertyValueModifier> {
+public final class ValueWithModifier {
+
+  private final String value;
+  private final PropertyValueModifier propertyValueModifier;
 
   public ValueWithModifier(String pValue, PropertyValueModifier pModifier) {
-    super(pValue, pModifier);
+    this.value = pValue;
+    this.propertyValueModifier = pModifier;
   }
 
   public String getValue(){
-    return value1;
+    return value;
   }
   
   public PropertyValueModifier getPropertyValueModifier(){
-    return value2;
+    return propertyValueModifier;
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof ValueWithModifier)) {
+      return false;
+    }
+    ValueWithModifier other = (ValueWithModifier) pOther;
+    return Objects.equals(value, other.value) && propertyValueModifier == other.propertyValueModifier;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(value, propertyValueModifier);
+  }
+
+  @Override
+  public String toString() {
+    return propertyValueModifier + ":" + value;
   }
 }
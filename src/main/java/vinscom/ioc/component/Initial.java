@@ -1,19 +1,40 @@
 package vinscom.ioc.component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import vinscom.ioc.ComponentRepository;
+import vinscom.ioc.StartupScheduler;
 import vinscom.ioc.annotation.StartService;
 
 public class Initial {
 
   private String[] initial;
+  private int parallelism = 0;
+  private Executor executor;
   private final List<Object> components = new ArrayList<>();
 
   @StartService
   public void startup() {
-    for (String path : initial) {
-      components.add(ComponentRepository.instance().resolve(path));
+    if (getExecutor() == null && getParallelism() <= 0) {
+      for (String path : initial) {
+        components.add(ComponentRepository.instance().resolve(path));
+      }
+      return;
+    }
+
+    if (getExecutor() != null) {
+      components.addAll(new StartupScheduler(ComponentRepository.instance(), getExecutor()).start(Arrays.asList(initial)));
+      return;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(getParallelism());
+    try {
+      components.addAll(new StartupScheduler(ComponentRepository.instance(), pool).start(Arrays.asList(initial)));
+    } finally {
+      pool.shutdown();
     }
   }
 
@@ -25,6 +46,28 @@ public class Initial {
     this.initial = pInitial;
   }
 
+  /**
+   * @return Number of threads used to start components. 0 starts components one after another in calling thread.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int pParallelism) {
+    this.parallelism = pParallelism;
+  }
+
+  /**
+   * @return Executor used to start components in parallel. Takes precedence over parallelism.
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  public void setExecutor(Executor pExecutor) {
+    this.executor = pExecutor;
+  }
+
   public List<Object> getComponents() {
     return components;
   }
@@ -0,0 +1,64 @@
+package vinscom.ioc.component;
+
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import vinscom.ioc.annotation.StartService;
+import vinscom.ioc.trace.MetricsSnapshot;
+import vinscom.ioc.trace.RepositoryMetrics;
+
+/**
+ * Metrics of component repository, mounted at any path:
+ *
+ * <pre>
+ * $class=vinscom.ioc.component.Metrics
+ * $scope=GLOBAL
+ * </pre>
+ *
+ * Recording starts when component is started, unless <code>enabled</code> is false. Counters are shared by all
+ * instances, as there is one repository.
+ *
+ * @author vinay
+ */
+public class Metrics {
+
+  private boolean enabled = true;
+
+  @StartService
+  public void startup() {
+    if (isEnabled()) {
+      RepositoryMetrics.setEnabled(true);
+    }
+  }
+
+  /**
+   * @return Counters at this moment
+   */
+  public MetricsSnapshot snapshot() {
+    return RepositoryMetrics.snapshot();
+  }
+
+  public JsonObject toJson() {
+    return snapshot().toJson();
+  }
+
+  /**
+   * @param pLimit
+   * @return LOCAL components with most instances created
+   */
+  public List<MetricsSnapshot.Component> getTopLocalComponents(int pLimit) {
+    return snapshot().getTopLocalComponents(pLimit);
+  }
+
+  public void reset() {
+    RepositoryMetrics.reset();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean pEnabled) {
+    this.enabled = pEnabled;
+  }
+
+}
@@ -1,17 +1,26 @@
 package vinscom.ioc.component;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import vinscom.ioc.ComponentRepository;
 import vinscom.ioc.Glue;
+import vinscom.ioc.trace.RepositoryMetrics;
 
 /**
+ * Services by position, resolved on first access same way as {@link ServiceMap}. Resolved services are published as
+ * array and read without any lock.
  *
  * @author vinay
  */
 public class ServiceArray {
 
   private final List<String> mServices;
-  private List<Object> mResolvedServices;
+  private volatile Object[] mResolvedServices;
+  private final AtomicReference<CompletableFuture<Object[]>> mResolution = new AtomicReference<>();
 
   public ServiceArray(List<String> pServices) {
     if (pServices == null) {
@@ -21,20 +30,55 @@ public class ServiceArray {
   }
 
   public Object get(int pKey) {
-    return getServices().get(pKey);
+    return resolved()[pKey];
   }
 
-  public synchronized List<Object> getServices() {
-    if (mResolvedServices == null) {
-      mResolvedServices = new ArrayList<>(mServices.size());
-      mServices
-              .stream()
-              .forEach((v) -> {
-                Object component = Glue.instance().resolve(v);
-                mResolvedServices.add(component);
-              });
+  /**
+   * @return Unmodifiable view of resolved services
+   */
+  public List<Object> getServices() {
+    return Collections.unmodifiableList(Arrays.asList(resolved()));
+  }
+
+  private Object[] resolved() {
+
+    RepositoryMetrics.serviceArrayLookup();
+    Object[] result = mResolvedServices;
+
+    if (result == null) {
+      result = ServiceResolution.once(mResolution, this::resolve, (r) -> mResolvedServices = r);
+    }
+
+    return result;
+  }
+
+  private Object[] resolve() {
+
+    Glue glue = Glue.instance();
+    Object[] result = new Object[mServices.size()];
+    IntStream indexes = IntStream.range(0, result.length);
+
+    if (result.length > 1 && !ComponentRepository.isCreating()) {
+      indexes = indexes.parallel();
     }
-    return mResolvedServices;
+
+    indexes.forEach((i) -> result[i] = glue.resolve(mServices.get(i)));
+
+    return result;
+  }
+
+  /**
+   * @return Number of services, without resolving them
+   */
+  public int size() {
+    return mServices.size();
+  }
+
+  /**
+   * @return true if services are already resolved
+   */
+  public boolean isResolved() {
+    return mResolvedServices != null;
   }
 
 }
@@ -1,42 +1,102 @@
 package vinscom.ioc.component;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import vinscom.ioc.ComponentRepository;
 import vinscom.ioc.Glue;
+import vinscom.ioc.trace.RepositoryMetrics;
 
 /**
+ * Services by key, resolved on first access. Once resolved, services are published as unmodifiable LinkedHashMap, in
+ * order of keys, and read without any lock. Threads accessing map first time at same time wait for one resolution, see
+ * {@link ServiceResolution}.
+ *
+ * Services are resolved in parallel, unless map is first accessed while a component is being created, as service
+ * could be waiting for that component.
  *
  * @author vinay
  */
 public class ServiceMap {
 
   private final Map<String, String> mServices;
-  private Map<String, Object> mResolvedServices;
+  private final List<String> mKeys;
+  private final Set<String> mKeySet;
+  private volatile Map<String, Object> mResolvedServices;
+  private final AtomicReference<CompletableFuture<Map<String, Object>>> mResolution = new AtomicReference<>();
 
   public ServiceMap(Map<String, String> pServices) {
     if (pServices == null) {
       throw new RuntimeException("Services Map can't be null");
     }
     this.mServices = pServices;
+    this.mKeySet = Collections.unmodifiableSet(new TreeMap<>(pServices).keySet());
+    this.mKeys = new ArrayList<>(mKeySet);
   }
 
   public Object get(String pKey) {
     return getServices().get(pKey);
   }
 
-  public synchronized Map<String, Object> getServices() {
-    if (mResolvedServices == null) {
-      mResolvedServices = new TreeMap<>();
-      mServices
-              .entrySet()
-              .stream()
-              .forEach((kv) -> {
-                Object component = Glue.instance().resolve(kv.getValue());
-                mResolvedServices.put(kv.getKey(), component);
-              });
+  public Map<String, Object> getServices() {
+
+    RepositoryMetrics.serviceMapLookup();
+    Map<String, Object> result = mResolvedServices;
+
+    if (result == null) {
+      result = ServiceResolution.once(mResolution, this::resolve, (r) -> mResolvedServices = r);
+    }
+
+    return result;
+  }
+
+  private Map<String, Object> resolve() {
+
+    Glue glue = Glue.instance();
+    Object[] components = new Object[mKeys.size()];
+    IntStream indexes = IntStream.range(0, components.length);
+
+    if (components.length > 1 && !ComponentRepository.isCreating()) {
+      indexes = indexes.parallel();
+    }
+
+    indexes.forEach((i) -> components[i] = glue.resolve(mServices.get(mKeys.get(i))));
+
+    Map<String, Object> result = new LinkedHashMap<>(components.length * 2);
+
+    for (int i = 0; i < components.length; i++) {
+      result.put(mKeys.get(i), components[i]);
     }
-    return mResolvedServices;
+
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * @return Number of services, without resolving them
+   */
+  public int size() {
+    return mServices.size();
+  }
+
+  /**
+   * @return Keys of services in order, without resolving them
+   */
+  public Set<String> keySet() {
+    return mKeySet;
+  }
+
+  /**
+   * @return true if services are already resolved
+   */
+  public boolean isResolved() {
+    return mResolvedServices != null;
   }
 
 }
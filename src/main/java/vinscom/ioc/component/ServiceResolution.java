@@ -0,0 +1,71 @@
+package vinscom.ioc.component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import vinscom.ioc.ComponentRepository;
+
+/**
+ * First resolution of services of {@link ServiceMap} or {@link ServiceArray}, shared by threads accessing them at same
+ * time, so LOCAL services are created and started once.
+ *
+ * Only services of shared resolution are published. Thread creating a component doesn't wait for resolution in progress
+ * on another thread, as that thread could be waiting for component it is creating. It resolves services itself instead,
+ * and uses them for that access only, so LOCAL services are then created again and differ from published ones.
+ *
+ * @author vinay
+ */
+final class ServiceResolution {
+
+  private ServiceResolution() {
+  }
+
+  /**
+   * @param <T>
+   * @param pResolution Resolution in progress or done, or null
+   * @param pResolver Resolves services
+   * @param pPublish Publishes services of shared resolution, before threads waiting for it get them
+   * @return Resolved services
+   */
+  static <T> T once(AtomicReference<CompletableFuture<T>> pResolution, Supplier<T> pResolver, Consumer<T> pPublish) {
+
+    CompletableFuture<T> future = new CompletableFuture<>();
+
+    while (!pResolution.compareAndSet(null, future)) {
+      CompletableFuture<T> inFlight = pResolution.get();
+      if (inFlight == null) {
+        //Previous resolution failed, try again
+        continue;
+      }
+      if (!inFlight.isDone() && ComponentRepository.isCreating()) {
+        return pResolver.get();
+      }
+      return join(inFlight);
+    }
+
+    try {
+      T result = pResolver.get();
+      pPublish.accept(result);
+      future.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      pResolution.compareAndSet(future, null);
+      future.completeExceptionally(ex);
+      throw ex;
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> pFuture) {
+    try {
+      return pFuture.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+}
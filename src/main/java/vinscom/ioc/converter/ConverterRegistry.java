@@ -0,0 +1,148 @@
+package vinscom.ioc.converter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.vertx.core.json.JsonObject;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.ValueProxy;
+import vinscom.ioc.component.ServiceArray;
+import vinscom.ioc.component.ServiceMap;
+
+/**
+ * Ordered converters. Converter of property class is the first converter supporting it, and is found once per class.
+ *
+ * Converters registered by application come first, then converters found with {@link ServiceLoader}, then built in
+ * converters, so application can replace built in conversion.
+ *
+ * @author vinay
+ */
+public class ConverterRegistry {
+
+  private static final Logger logger = LogManager.getLogger(ConverterRegistry.class.getCanonicalName());
+  private static volatile ConverterRegistry defaultRegistry;
+
+  private final List<ValueConverter> converters = new CopyOnWriteArrayList<>();
+  private final List<ValueConverter> builtIn;
+  private volatile ClassValue<Optional<ValueConverter>> lookup = newLookup();
+
+  /**
+   * Creates registry with converters found with {@link ServiceLoader} and built in converters.
+   */
+  public ConverterRegistry() {
+    for (ValueConverter converter : ServiceLoader.load(ValueConverter.class)) {
+      logger.debug(() -> "Found converter:" + converter);
+      converters.add(converter);
+    }
+    builtIn = createBuiltIn();
+  }
+
+  /**
+   * @return Registry shared by all repositories which don't configure their own
+   */
+  public static ConverterRegistry getDefault() {
+    if (defaultRegistry == null) {
+      synchronized (ConverterRegistry.class) {
+        if (defaultRegistry == null) {
+          defaultRegistry = new ConverterRegistry();
+        }
+      }
+    }
+    return defaultRegistry;
+  }
+
+  /**
+   * Add converter before all converters added earlier and built in converters. Only plans compiled after it use it.
+   *
+   * @param pConverter
+   * @return this
+   */
+  public ConverterRegistry register(ValueConverter pConverter) {
+    converters.add(0, pConverter);
+    lookup = newLookup();
+    return this;
+  }
+
+  /**
+   * @param pTargetClass Class of property
+   * @return Converter or null if property refers to another component
+   */
+  public ValueConverter getConverter(Class<?> pTargetClass) {
+    return lookup.get(pTargetClass).orElse(null);
+  }
+
+  private ClassValue<Optional<ValueConverter>> newLookup() {
+    return new ClassValue<Optional<ValueConverter>>() {
+      @Override
+      protected Optional<ValueConverter> computeValue(Class<?> pClass) {
+        return find(pClass);
+      }
+    };
+  }
+
+  private Optional<ValueConverter> find(Class<?> pClass) {
+
+    for (ValueConverter converter : converters) {
+      if (converter.supports(pClass)) {
+        return Optional.of(converter);
+      }
+    }
+
+    for (ValueConverter converter : builtIn) {
+      if (converter.supports(pClass)) {
+        return Optional.of(converter);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * @return Converters of all classes supported by Glue, in order they were always checked
+   */
+  private static List<ValueConverter> createBuiltIn() {
+
+    List<ValueConverter> result = new ArrayList<>();
+
+    result.add(new ValueConverter() {
+      @Override
+      public boolean supports(Class<?> pTargetClass) {
+        return pTargetClass.isArray();
+      }
+
+      @Override
+      public Object convert(ValueProxy pValue) {
+        return pValue.getValueAsArray();
+      }
+    });
+    result.add(ValueConverter.immutable(String.class, ValueProxy::getValueAsString));
+    result.add(ValueConverter.of(List.class, ValueProxy::getValueAsList, (v) -> ImmutableList.copyOf((List<?>) v)));
+    result.add(ValueConverter.of(Map.class, ValueProxy::getValueAsMap, (v) -> ImmutableMap.copyOf((Map<?, ?>) v)));
+    result.add(ValueConverter.immutable(Enum.class, ValueProxy::getValueAsEnum));
+    result.add(ValueConverter.immutable(boolean.class, ValueProxy::getValueAsboolean));
+    result.add(ValueConverter.immutable(Boolean.class, ValueProxy::getValueAsBoolean));
+    result.add(ValueConverter.of(JsonObject.class, ValueProxy::getValueAsJson));
+    result.add(ValueConverter.of(Set.class, ValueProxy::getValueAsSet, (v) -> ImmutableSet.copyOf((Set<?>) v)));
+    result.add(ValueConverter.of(ServiceMap.class, (v) -> new ServiceMap(v.getValueAsMap())));
+    result.add(ValueConverter.immutable(int.class, ValueProxy::getValueAsInt));
+    result.add(ValueConverter.immutable(Integer.class, ValueProxy::getValueAsInteger));
+    result.add(ValueConverter.immutable(long.class, ValueProxy::getValueAslong));
+    result.add(ValueConverter.immutable(Long.class, ValueProxy::getValueAsLong));
+    //File and JSON depend on files of layers, not just on property value
+    result.add(ValueConverter.of(File.class, ValueProxy::getValueAsFile));
+    result.add(ValueConverter.immutable(Logger.class, ValueProxy::getValueAsLogger));
+    result.add(ValueConverter.of(ServiceArray.class, (v) -> new ServiceArray(v.getValueAsList())));
+
+    return result;
+  }
+
+}
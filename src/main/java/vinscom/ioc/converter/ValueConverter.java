@@ -0,0 +1,86 @@
+package vinscom.ioc.converter;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import vinscom.ioc.ValueProxy;
+
+/**
+ * Converts property value into value of class of property. Converters are registered in {@link ConverterRegistry}, or
+ * discovered with {@link java.util.ServiceLoader} from META-INF/services/vinscom.ioc.converter.ValueConverter.
+ *
+ * Property of class no converter supports refers to another component.
+ *
+ * @author vinay
+ */
+public interface ValueConverter {
+
+  /**
+   * @param pTargetClass Class of property
+   * @return true if this converter creates value for property of given class
+   */
+  boolean supports(Class<?> pTargetClass);
+
+  /**
+   * @param pValue Non empty value of property, with class of property and path of component
+   * @return Converted value
+   */
+  Object convert(ValueProxy pValue);
+
+  /**
+   * @param pValue Value converted by this converter
+   * @return Value which can be given to every instance of component, such as immutable copy of value, or null if value
+   * must be converted for every instance
+   */
+  default Object share(Object pValue) {
+    return null;
+  }
+
+  /**
+   * @param pClass
+   * @param pConverter
+   * @return Converter for properties of given class, or any of its sub class
+   */
+  static ValueConverter of(Class<?> pClass, Function<ValueProxy, Object> pConverter) {
+    return of(pClass, pConverter, (v) -> null);
+  }
+
+  /**
+   * @param pClass
+   * @param pConverter
+   * @return Converter for properties of immutable class, whose value can be given to every instance
+   */
+  static ValueConverter immutable(Class<?> pClass, Function<ValueProxy, Object> pConverter) {
+    return of(pClass, pConverter, UnaryOperator.identity());
+  }
+
+  /**
+   * @param pClass
+   * @param pConverter
+   * @param pShare Creates value which can be given to every instance, or returns null
+   * @return Converter for properties of given class, or any of its sub class
+   */
+  static ValueConverter of(Class<?> pClass, Function<ValueProxy, Object> pConverter, UnaryOperator<Object> pShare) {
+    return new ValueConverter() {
+      @Override
+      public boolean supports(Class<?> pTargetClass) {
+        return pClass.isAssignableFrom(pTargetClass);
+      }
+
+      @Override
+      public Object convert(ValueProxy pValue) {
+        return pConverter.apply(pValue);
+      }
+
+      @Override
+      public Object share(Object pValue) {
+        return pShare.apply(pValue);
+      }
+
+      @Override
+      public String toString() {
+        return "ValueConverter[" + pClass.getName() + "]";
+      }
+    };
+  }
+
+}
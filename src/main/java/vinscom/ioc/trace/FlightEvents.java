@@ -0,0 +1,128 @@
+package vinscom.ioc.trace;
+
+import java.nio.file.Path;
+import vinscom.ioc.common.Constant;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Emits JDK Flight Recorder events for component resolution, property injection, start service methods, loading of
+ * properties files and file lookups, so Glue activity can be correlated with GC and lock events of same recording.
+ *
+ * Every <code>begin</code> method returns event to pass to matching <code>end</code> method, or null if event is not
+ * enabled in any running recording. Flight Recorder classes are only loaded if JVM has them and
+ * {@value Constant.SystemProperties#FLIGHT_RECORDER} is not false, otherwise every call returns immediately.
+ *
+ * @author vinay
+ */
+public class FlightEvents {
+
+  private static final boolean SUPPORTED = detect();
+
+  private FlightEvents() {
+  }
+
+  private static boolean detect() {
+
+    if (!Boolean.parseBoolean(System.getProperty(Constant.SystemProperties.FLIGHT_RECORDER, "true"))) {
+      return false;
+    }
+
+    try {
+      return JfrEvents.isAvailable();
+    } catch (LinkageError ex) {
+      //JVM without jdk.jfr
+      return false;
+    }
+  }
+
+  /**
+   * @return true if JVM can record Glue events
+   */
+  public static boolean isSupported() {
+    return SUPPORTED;
+  }
+
+  public static Object beginResolve() {
+    return SUPPORTED ? JfrEvents.beginResolve() : null;
+  }
+
+  /**
+   * @param pEvent Value returned by {@link #beginResolve()}
+   * @param pPath Path of component
+   * @param pInstance Resolved instance
+   * @param pScope
+   * @param pCreated true if instance was created, false if existing instance was returned
+   */
+  public static void endResolve(Object pEvent, String pPath, Object pInstance, ComponentScopeType pScope, boolean pCreated) {
+    if (pEvent != null) {
+      JfrEvents.endResolve(pEvent, pPath, pInstance, pScope, pCreated);
+    }
+  }
+
+  public static Object beginInject() {
+    return SUPPORTED ? JfrEvents.beginInject() : null;
+  }
+
+  /**
+   * @param pEvent Value returned by {@link #beginInject()}
+   * @param pPath Path of component
+   * @param pMethod Name of setter
+   */
+  public static void endInject(Object pEvent, String pPath, String pMethod) {
+    if (pEvent != null) {
+      JfrEvents.endInject(pEvent, pPath, pMethod);
+    }
+  }
+
+  public static Object beginStart() {
+    return SUPPORTED ? JfrEvents.beginStart() : null;
+  }
+
+  /**
+   * @param pEvent Value returned by {@link #beginStart()}
+   * @param pPath Path of component
+   * @param pMethod Name of start service method
+   */
+  public static void endStart(Object pEvent, String pPath, String pMethod) {
+    if (pEvent != null) {
+      JfrEvents.endStart(pEvent, pPath, pMethod);
+    }
+  }
+
+  public static Object beginPropertiesFile() {
+    return SUPPORTED ? JfrEvents.beginPropertiesFile() : null;
+  }
+
+  /**
+   * @param pEvent Value returned by {@link #beginPropertiesFile()}
+   * @param pFile Properties file
+   * @param pLayer Layer of file
+   * @param pComponentPath Component defined by file
+   * @param pBytes Size of file
+   * @param pEntries Number of properties in file
+   */
+  public static void endPropertiesFile(Object pEvent, Path pFile, Path pLayer, String pComponentPath, long pBytes, int pEntries) {
+    if (pEvent != null) {
+      JfrEvents.endPropertiesFile(pEvent, pFile, pLayer, pComponentPath, pBytes, pEntries);
+    }
+  }
+
+  public static Object beginFileLookup() {
+    return SUPPORTED ? JfrEvents.beginFileLookup() : null;
+  }
+
+  /**
+   * @param pEvent Value returned by {@link #beginFileLookup()}
+   * @param pLoader Simple name of loader class
+   * @param pPath Path of file relative to layer
+   * @param pLayersProbed Number of layers checked on file system, 0 if index of layers was used
+   * @param pFilesFound Number of layers having file
+   * @param pBytesRead Bytes read from file system, 0 if nothing was read
+   */
+  public static void endFileLookup(Object pEvent, String pLoader, String pPath, int pLayersProbed, int pFilesFound, long pBytesRead) {
+    if (pEvent != null) {
+      JfrEvents.endFileLookup(pEvent, pLoader, pPath, pLayersProbed, pFilesFound, pBytesRead);
+    }
+  }
+
+}
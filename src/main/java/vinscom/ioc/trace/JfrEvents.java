@@ -0,0 +1,217 @@
+package vinscom.ioc.trace;
+
+import java.nio.file.Path;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Flight Recorder events of Glue. Only {@link FlightEvents} refers to this class, so it is not loaded in JVM without
+ * jdk.jfr.
+ *
+ * Event instances are created only if event is enabled, which is checked on one instance of every event kept for it.
+ * Stack traces are off, and can be turned on in recording settings.
+ *
+ * @author vinay
+ */
+final class JfrEvents {
+
+  private static final ResolveEvent RESOLVE = new ResolveEvent();
+  private static final InjectEvent INJECT = new InjectEvent();
+  private static final StartEvent START = new StartEvent();
+  private static final PropertiesFileEvent PROPERTIES_FILE = new PropertiesFileEvent();
+  private static final FileLookupEvent FILE_LOOKUP = new FileLookupEvent();
+
+  private JfrEvents() {
+  }
+
+  static boolean isAvailable() {
+    return FlightRecorder.isAvailable();
+  }
+
+  static Object beginResolve() {
+    return RESOLVE.isEnabled() ? begin(new ResolveEvent()) : null;
+  }
+
+  static void endResolve(Object pEvent, String pPath, Object pInstance, ComponentScopeType pScope, boolean pCreated) {
+    ResolveEvent event = (ResolveEvent) pEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = pPath;
+      event.componentClass = pInstance == null ? null : pInstance.getClass();
+      event.scope = pScope == null ? null : pScope.name();
+      event.created = pCreated;
+      event.commit();
+    }
+  }
+
+  static Object beginInject() {
+    return INJECT.isEnabled() ? begin(new InjectEvent()) : null;
+  }
+
+  static void endInject(Object pEvent, String pPath, String pMethod) {
+    InjectEvent event = (InjectEvent) pEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = pPath;
+      event.method = pMethod;
+      event.commit();
+    }
+  }
+
+  static Object beginStart() {
+    return START.isEnabled() ? begin(new StartEvent()) : null;
+  }
+
+  static void endStart(Object pEvent, String pPath, String pMethod) {
+    StartEvent event = (StartEvent) pEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = pPath;
+      event.method = pMethod;
+      event.commit();
+    }
+  }
+
+  static Object beginPropertiesFile() {
+    return PROPERTIES_FILE.isEnabled() ? begin(new PropertiesFileEvent()) : null;
+  }
+
+  static void endPropertiesFile(Object pEvent, Path pFile, Path pLayer, String pComponentPath, long pBytes, int pEntries) {
+    PropertiesFileEvent event = (PropertiesFileEvent) pEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.file = pFile.toString();
+      event.layer = pLayer == null ? null : pLayer.toString();
+      event.path = pComponentPath;
+      event.bytes = pBytes;
+      event.entries = pEntries;
+      event.commit();
+    }
+  }
+
+  static Object beginFileLookup() {
+    return FILE_LOOKUP.isEnabled() ? begin(new FileLookupEvent()) : null;
+  }
+
+  static void endFileLookup(Object pEvent, String pLoader, String pPath, int pLayersProbed, int pFilesFound, long pBytesRead) {
+    FileLookupEvent event = (FileLookupEvent) pEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.loader = pLoader;
+      event.path = pPath;
+      event.layersProbed = pLayersProbed;
+      event.filesFound = pFilesFound;
+      event.bytesRead = pBytesRead;
+      event.commit();
+    }
+  }
+
+  private static Event begin(Event pEvent) {
+    pEvent.begin();
+    return pEvent;
+  }
+
+  @Name("vinscom.ioc.Resolve")
+  @Label("Component Resolve")
+  @Description("Component returned by repository. Lookups of existing GLOBAL component are below default threshold. Class and scope are empty if resolution failed.")
+  @Category("Glue")
+  @StackTrace(false)
+  @Threshold("10 us")
+  static class ResolveEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Class")
+    Class<?> componentClass;
+
+    @Label("Scope")
+    String scope;
+
+    @Label("Created")
+    @Description("True if instance was created, false if existing or concurrently created instance was returned")
+    boolean created;
+  }
+
+  @Name("vinscom.ioc.Inject")
+  @Label("Property Injection")
+  @Category("Glue")
+  @StackTrace(false)
+  @Threshold("10 us")
+  static class InjectEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Method")
+    String method;
+  }
+
+  @Name("vinscom.ioc.StartService")
+  @Label("Start Service")
+  @Category("Glue")
+  @StackTrace(false)
+  static class StartEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Method")
+    String method;
+  }
+
+  @Name("vinscom.ioc.PropertiesFile")
+  @Label("Properties File Load")
+  @Category("Glue")
+  @StackTrace(false)
+  static class PropertiesFileEvent extends Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Layer")
+    String layer;
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Entries")
+    int entries;
+  }
+
+  @Name("vinscom.ioc.FileLookup")
+  @Label("File Lookup")
+  @Category("Glue")
+  @StackTrace(false)
+  static class FileLookupEvent extends Event {
+
+    @Label("Loader")
+    String loader;
+
+    @Label("Path")
+    String path;
+
+    @Label("Layers Probed")
+    int layersProbed;
+
+    @Label("Files Found")
+    int filesFound;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+  }
+
+}
@@ -0,0 +1,128 @@
+package vinscom.ioc.trace;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with one bucket per power of two nanoseconds. Every bucket is a {@link LongAdder}, so threads
+ * recording at same time don't contend. Percentiles are upper bound of bucket they fall in, so they are within factor
+ * of two of actual value.
+ *
+ * @author vinay
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder total = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @param pNanos Duration
+   */
+  public void record(long pNanos) {
+    long nanos = Math.max(pNanos, 0);
+    buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+    total.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  public void reset() {
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+    total.reset();
+    max.reset();
+  }
+
+  /**
+   * @return Counts of histogram at this moment. Counts recorded while snapshot is taken may be partly included.
+   */
+  public Snapshot snapshot() {
+
+    long[] counts = new long[BUCKETS];
+
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+    }
+
+    return new Snapshot(counts, total.sum(), max.get());
+  }
+
+  public static class Snapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    private Snapshot(long[] pCounts, long pTotalNanos, long pMaxNanos) {
+      this.counts = pCounts;
+      this.totalNanos = pTotalNanos;
+      this.maxNanos = pMaxNanos;
+
+      long sum = 0;
+
+      for (long c : pCounts) {
+        sum += c;
+      }
+
+      this.count = sum;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+    public long getMeanNanos() {
+      return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * @param pPercentile From 0 to 100
+     * @return Upper bound of bucket percentile falls in, never more than maximum, or 0 if nothing is recorded
+     */
+    public long getPercentileNanos(double pPercentile) {
+
+      long rank = (long) Math.ceil(count * pPercentile / 100);
+      long seen = 0;
+
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank && seen > 0) {
+          return i == 0 ? 0 : Math.min(maxNanos, (1L << i) - 1);
+        }
+      }
+
+      return 0;
+    }
+
+    public JsonObject toJson() {
+      return new JsonObject()
+              .put("count", count)
+              .put("totalNanos", totalNanos)
+              .put("meanNanos", getMeanNanos())
+              .put("p50Nanos", getPercentileNanos(50))
+              .put("p99Nanos", getPercentileNanos(99))
+              .put("p999Nanos", getPercentileNanos(99.9))
+              .put("maxNanos", maxNanos);
+    }
+  }
+
+}
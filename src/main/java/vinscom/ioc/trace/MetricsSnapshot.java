@@ -0,0 +1,231 @@
+package vinscom.ioc.trace;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Counters of {@link RepositoryMetrics} at one moment.
+ *
+ * @author vinay
+ */
+public class MetricsSnapshot {
+
+  private final List<Component> components;
+  private final long globalHits;
+  private final long globalMisses;
+  private final long serviceMapLookups;
+  private final long serviceArrayLookups;
+  private final LatencyHistogram.Snapshot creation;
+  private final LatencyHistogram.Snapshot creationWait;
+  private final LatencyHistogram.Snapshot configurationWait;
+
+  public MetricsSnapshot(List<Component> pComponents, long pGlobalHits, long pGlobalMisses, long pServiceMapLookups,
+          long pServiceArrayLookups, LatencyHistogram.Snapshot pCreation, LatencyHistogram.Snapshot pCreationWait,
+          LatencyHistogram.Snapshot pConfigurationWait) {
+    List<Component> sorted = new ArrayList<>(pComponents);
+    sorted.sort(Comparator.comparing(Component::getPath));
+    this.components = Collections.unmodifiableList(sorted);
+    this.globalHits = pGlobalHits;
+    this.globalMisses = pGlobalMisses;
+    this.serviceMapLookups = pServiceMapLookups;
+    this.serviceArrayLookups = pServiceArrayLookups;
+    this.creation = pCreation;
+    this.creationWait = pCreationWait;
+    this.configurationWait = pConfigurationWait;
+  }
+
+  /**
+   * @return Counters of every resolved component, by path
+   */
+  public List<Component> getComponents() {
+    return components;
+  }
+
+  /**
+   * @param pPath
+   * @return Counters of component, or null if it was not resolved
+   */
+  public Component getComponent(String pPath) {
+    return components
+            .stream()
+            .filter((c) -> c.getPath().equals(pPath))
+            .findFirst()
+            .orElse(null);
+  }
+
+  /**
+   * @param pLimit
+   * @return LOCAL components with most instances created. Such components may be candidates for GLOBAL scope.
+   */
+  public List<Component> getTopLocalComponents(int pLimit) {
+    return components
+            .stream()
+            .filter((c) -> c.getScope() == ComponentScopeType.LOCAL)
+            .sorted(Comparator.comparingLong(Component::getCreated).reversed())
+            .limit(pLimit)
+            .collect(Collectors.toList());
+  }
+
+  public long getResolves() {
+    return components.stream().mapToLong(Component::getResolves).sum();
+  }
+
+  public long getGlobalHits() {
+    return globalHits;
+  }
+
+  public long getGlobalMisses() {
+    return globalMisses;
+  }
+
+  /**
+   * @return Share of GLOBAL resolves returning published instance, from 0 to 1
+   */
+  public double getGlobalHitRatio() {
+    long total = globalHits + globalMisses;
+    return total == 0 ? 0 : (double) globalHits / total;
+  }
+
+  /**
+   * @return Instances of LOCAL components created
+   */
+  public long getLocalCreated() {
+    return components
+            .stream()
+            .filter((c) -> c.getScope() == ComponentScopeType.LOCAL)
+            .mapToLong(Component::getCreated)
+            .sum();
+  }
+
+  public long getServiceMapLookups() {
+    return serviceMapLookups;
+  }
+
+  public long getServiceArrayLookups() {
+    return serviceArrayLookups;
+  }
+
+  /**
+   * @return Time to create instance, inject its properties and start it
+   */
+  public LatencyHistogram.Snapshot getCreation() {
+    return creation;
+  }
+
+  /**
+   * @return Time threads waited for GLOBAL component created by another thread
+   */
+  public LatencyHistogram.Snapshot getCreationWait() {
+    return creationWait;
+  }
+
+  /**
+   * @return Time threads waited for configuration loaded in background
+   */
+  public LatencyHistogram.Snapshot getConfigurationWait() {
+    return configurationWait;
+  }
+
+  public JsonObject toJson() {
+
+    JsonArray array = new JsonArray();
+    components.forEach((c) -> array.add(c.toJson()));
+
+    return new JsonObject()
+            .put("resolves", getResolves())
+            .put("globalHits", globalHits)
+            .put("globalMisses", globalMisses)
+            .put("globalHitRatio", getGlobalHitRatio())
+            .put("localCreated", getLocalCreated())
+            .put("serviceMapLookups", serviceMapLookups)
+            .put("serviceArrayLookups", serviceArrayLookups)
+            .put("creation", creation.toJson())
+            .put("creationWait", creationWait.toJson())
+            .put("configurationWait", configurationWait.toJson())
+            .put("components", array);
+  }
+
+  @Override
+  public String toString() {
+    return toJson().encodePrettily();
+  }
+
+  public static class Component {
+
+    private final String path;
+    private final ComponentScopeType scope;
+    private final long resolves;
+    private final long hits;
+    private final long created;
+    private final long creationNanos;
+    private final long waitNanos;
+
+    public Component(String pPath, ComponentScopeType pScope, long pResolves, long pHits, long pCreated, long pCreationNanos, long pWaitNanos) {
+      this.path = pPath;
+      this.scope = pScope;
+      this.resolves = pResolves;
+      this.hits = pHits;
+      this.created = pCreated;
+      this.creationNanos = pCreationNanos;
+      this.waitNanos = pWaitNanos;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public ComponentScopeType getScope() {
+      return scope;
+    }
+
+    public long getResolves() {
+      return resolves;
+    }
+
+    /**
+     * @return Resolves returning published GLOBAL instance
+     */
+    public long getHits() {
+      return hits;
+    }
+
+    /**
+     * @return Instances created
+     */
+    public long getCreated() {
+      return created;
+    }
+
+    /**
+     * @return Total time spent creating instances, including components they refer to
+     */
+    public long getCreationNanos() {
+      return creationNanos;
+    }
+
+    /**
+     * @return Total time threads waited for instance created by another thread
+     */
+    public long getWaitNanos() {
+      return waitNanos;
+    }
+
+    public JsonObject toJson() {
+      return new JsonObject()
+              .put("path", path)
+              .put("scope", scope == null ? null : scope.name())
+              .put("resolves", resolves)
+              .put("hits", hits)
+              .put("created", created)
+              .put("creationNanos", creationNanos)
+              .put("waitNanos", waitNanos);
+    }
+  }
+
+}
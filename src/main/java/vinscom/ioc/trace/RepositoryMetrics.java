@@ -0,0 +1,183 @@
+package vinscom.ioc.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import vinscom.ioc.common.Constant;
+import vinscom.ioc.enumeration.ComponentScopeType;
+
+/**
+ * Counters of component repository: resolves and instances created by path, hits and misses of GLOBAL components,
+ * creation latency, ServiceMap and ServiceArray lookups, and time threads waited for component created by another
+ * thread or for configuration loaded in background.
+ *
+ * Recording is on if {@value Constant.SystemProperties#METRICS} is true, or once {@link vinscom.ioc.component.Metrics}
+ * is started. Counters are {@link LongAdder}, so threads resolving components at same time don't contend on them.
+ * Without recording, every call returns after reading one flag.
+ *
+ * @author vinay
+ */
+public class RepositoryMetrics {
+
+  private static volatile boolean enabled = Boolean.getBoolean(Constant.SystemProperties.METRICS);
+
+  private static final Map<String, PathCounters> paths = new ConcurrentHashMap<>();
+  private static final LongAdder globalHits = new LongAdder();
+  private static final LongAdder globalMisses = new LongAdder();
+  private static final LongAdder serviceMapLookups = new LongAdder();
+  private static final LongAdder serviceArrayLookups = new LongAdder();
+  private static final LatencyHistogram creation = new LatencyHistogram();
+  private static final LatencyHistogram creationWait = new LatencyHistogram();
+  private static final LatencyHistogram configurationWait = new LatencyHistogram();
+
+  private RepositoryMetrics() {
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(boolean pEnabled) {
+    enabled = pEnabled;
+  }
+
+  /**
+   * @return Start of measured duration, or 0 if not recording
+   */
+  public static long begin() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Published GLOBAL component was returned.
+   *
+   * @param pPath
+   */
+  public static void hit(String pPath) {
+    if (enabled) {
+      PathCounters counters = counters(pPath, ComponentScopeType.GLOBAL);
+      counters.resolves.increment();
+      counters.hits.increment();
+      globalHits.increment();
+    }
+  }
+
+  /**
+   * Component had to be created, or waited for if GLOBAL component is being created by another thread.
+   *
+   * @param pPath
+   * @param pScope
+   */
+  public static void miss(String pPath, ComponentScopeType pScope) {
+    if (enabled) {
+      counters(pPath, pScope).resolves.increment();
+      if (pScope == ComponentScopeType.GLOBAL) {
+        globalMisses.increment();
+      }
+    }
+  }
+
+  /**
+   * @param pPath
+   * @param pScope
+   * @param pStart Value returned by {@link #begin()} before instance was created
+   */
+  public static void created(String pPath, ComponentScopeType pScope, long pStart) {
+    if (enabled && pStart != 0) {
+      long nanos = System.nanoTime() - pStart;
+      PathCounters counters = counters(pPath, pScope);
+      counters.created.increment();
+      counters.creationNanos.add(nanos);
+      creation.record(nanos);
+    }
+  }
+
+  /**
+   * @param pPath Component created by another thread
+   * @param pStart Value returned by {@link #begin()} before waiting
+   */
+  public static void waitedForCreation(String pPath, long pStart) {
+    if (enabled && pStart != 0) {
+      long nanos = System.nanoTime() - pStart;
+      counters(pPath, ComponentScopeType.GLOBAL).waitNanos.add(nanos);
+      creationWait.record(nanos);
+    }
+  }
+
+  /**
+   * @param pStart Value returned by {@link #begin()} before waiting for configuration loaded in background
+   */
+  public static void waitedForConfiguration(long pStart) {
+    if (enabled && pStart != 0) {
+      configurationWait.record(System.nanoTime() - pStart);
+    }
+  }
+
+  public static void serviceMapLookup() {
+    if (enabled) {
+      serviceMapLookups.increment();
+    }
+  }
+
+  public static void serviceArrayLookup() {
+    if (enabled) {
+      serviceArrayLookups.increment();
+    }
+  }
+
+  /**
+   * Clear all counters. Counters recorded while reset is in progress may be partly kept.
+   */
+  public static void reset() {
+    paths.clear();
+    globalHits.reset();
+    globalMisses.reset();
+    serviceMapLookups.reset();
+    serviceArrayLookups.reset();
+    creation.reset();
+    creationWait.reset();
+    configurationWait.reset();
+  }
+
+  /**
+   * @return Counters at this moment
+   */
+  public static MetricsSnapshot snapshot() {
+
+    List<MetricsSnapshot.Component> components = new ArrayList<>(paths.size());
+
+    paths.forEach((path, counters) -> components.add(new MetricsSnapshot.Component(path, counters.scope,
+            counters.resolves.sum(), counters.hits.sum(), counters.created.sum(), counters.creationNanos.sum(), counters.waitNanos.sum())));
+
+    return new MetricsSnapshot(components, globalHits.sum(), globalMisses.sum(), serviceMapLookups.sum(), serviceArrayLookups.sum(),
+            creation.snapshot(), creationWait.snapshot(), configurationWait.snapshot());
+  }
+
+  private static PathCounters counters(String pPath, ComponentScopeType pScope) {
+
+    PathCounters counters = paths.get(pPath);
+
+    if (counters == null) {
+      counters = paths.computeIfAbsent(pPath, (p) -> new PathCounters(pScope));
+    }
+
+    return counters;
+  }
+
+  private static class PathCounters {
+
+    private final ComponentScopeType scope;
+    private final LongAdder resolves = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder creationNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    private PathCounters(ComponentScopeType pScope) {
+      this.scope = pScope;
+    }
+  }
+
+}
@@ -0,0 +1,176 @@
+package vinscom.ioc.trace;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import vinscom.ioc.common.Constant;
+
+/**
+ * Records duration of every phase of component resolution during startup, if
+ * {@value Constant.SystemProperties#TRACE} is set to file name. Trace is written to that file in Chrome trace event
+ * format, which can be opened in chrome://tracing or Perfetto, and summary of slowest components and critical path is
+ * written next to it with <code>.txt</code> extension.
+ *
+ * {@link vinscom.ioc.Boot} writes trace once <code>/Initial</code> is started, other applications call
+ * {@link #write()}. Recording stops once trace is written. Without system property, every call returns immediately.
+ *
+ * @author vinay
+ */
+public class StartupTrace {
+
+  public static final String LOAD = "load";
+  public static final String RESOLVE = "resolve";
+  public static final String LOOKUP = "lookup";
+  public static final String PLAN = "plan";
+  public static final String AWAIT = "await";
+  public static final String CREATE = "create";
+  public static final String INJECT = "inject";
+  public static final String START = "start";
+
+  private static final Logger logger = LogManager.getLogger(StartupTrace.class.getCanonicalName());
+  private static final int MAX_EVENTS = 1_000_000;
+  private static final String FILE = System.getProperty(Constant.SystemProperties.TRACE);
+  private static final Queue<TraceEvent> events = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger count = new AtomicInteger();
+  private static volatile boolean recording = FILE != null;
+
+  private StartupTrace() {
+  }
+
+  /**
+   * @return true if phases are being recorded
+   */
+  public static boolean isRecording() {
+    return recording;
+  }
+
+  /**
+   * @return Start of phase, or 0 if not recording
+   */
+  public static long begin() {
+    return recording ? System.nanoTime() : 0;
+  }
+
+  /**
+   * @param pPhase
+   * @param pPath Path of component
+   * @param pParent Path of component whose creation triggered phase, or null
+   * @param pStart Value returned by {@link #begin()}
+   */
+  public static void end(String pPhase, String pPath, String pParent, long pStart) {
+    end(pPhase, pPhase, pPath, pParent, pStart);
+  }
+
+  /**
+   * @param pPhase
+   * @param pName Name of event, such as property name
+   * @param pPath Path of component
+   * @param pParent Path of component whose creation triggered phase, or null
+   * @param pStart Value returned by {@link #begin()}
+   */
+  public static void end(String pPhase, String pName, String pPath, String pParent, long pStart) {
+    if (!recording || pStart == 0) {
+      return;
+    }
+    if (count.incrementAndGet() > MAX_EVENTS) {
+      return;
+    }
+    events.add(new TraceEvent(pPhase, pName, pPath, pParent, Thread.currentThread(), pStart, System.nanoTime() - pStart));
+  }
+
+  /**
+   * Write trace to file given by {@value Constant.SystemProperties#TRACE}, and stop recording.
+   */
+  public static void write() {
+    if (FILE != null && recording) {
+      write(Paths.get(FILE));
+    }
+  }
+
+  /**
+   * Write trace and its summary, and stop recording.
+   *
+   * @param pFile Trace event file, summary is written to same file with <code>.txt</code> extension
+   */
+  public static synchronized void write(Path pFile) {
+
+    recording = false;
+
+    List<TraceEvent> result = getEvents();
+
+    try {
+      Files.write(pFile, toChromeTrace(result).encode().getBytes());
+      Files.write(Paths.get(pFile.toString() + ".txt"), new TraceSummary(result).toString().getBytes());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    logger.info(() -> "Startup trace of " + result.size() + " events written to " + pFile);
+  }
+
+  /**
+   * @return Recorded events ordered by start
+   */
+  public static List<TraceEvent> getEvents() {
+    List<TraceEvent> result = new ArrayList<>(events);
+    result.sort(Comparator.comparingLong(TraceEvent::getStart));
+    return result;
+  }
+
+  /**
+   * @param pEvents
+   * @return Trace in Chrome trace event format, with complete events in micro seconds
+   */
+  public static JsonObject toChromeTrace(List<TraceEvent> pEvents) {
+
+    JsonArray traceEvents = new JsonArray();
+    long origin = pEvents.stream().mapToLong(TraceEvent::getStart).min().orElse(0);
+
+    pEvents
+            .stream()
+            .map(TraceEvent::getThreadId)
+            .distinct()
+            .forEach((id) -> {
+              String name = pEvents.stream().filter((e) -> e.getThreadId() == id).findFirst().get().getThreadName();
+              traceEvents.add(new JsonObject()
+                      .put("name", "thread_name")
+                      .put("ph", "M")
+                      .put("pid", 1)
+                      .put("tid", id)
+                      .put("args", new JsonObject().put("name", name)));
+            });
+
+    for (TraceEvent event : pEvents) {
+      JsonObject args = new JsonObject().put("path", event.getPath());
+      if (event.getParent() != null) {
+        args.put("parent", event.getParent());
+      }
+      traceEvents.add(new JsonObject()
+              .put("name", StartupTrace.RESOLVE.equals(event.getPhase()) ? event.getPath() : event.getName())
+              .put("cat", event.getPhase())
+              .put("ph", "X")
+              .put("ts", (event.getStart() - origin) / 1000.0)
+              .put("dur", event.getDuration() / 1000.0)
+              .put("pid", 1)
+              .put("tid", event.getThreadId())
+              .put("args", args));
+    }
+
+    return new JsonObject()
+            .put("traceEvents", traceEvents)
+            .put("displayTimeUnit", "ms");
+  }
+
+}
@@ -0,0 +1,81 @@
+package vinscom.ioc.trace;
+
+/**
+ * One timed phase of startup.
+ *
+ * @author vinay
+ */
+public class TraceEvent {
+
+  private final String phase;
+  private final String name;
+  private final String path;
+  private final String parent;
+  private final long threadId;
+  private final String threadName;
+  private final long start;
+  private final long duration;
+
+  public TraceEvent(String pPhase, String pName, String pPath, String pParent, Thread pThread, long pStart, long pDuration) {
+    this.phase = pPhase;
+    this.name = pName;
+    this.path = pPath;
+    this.parent = pParent;
+    this.threadId = pThread.getId();
+    this.threadName = pThread.getName();
+    this.start = pStart;
+    this.duration = pDuration;
+  }
+
+  /**
+   * @return Phase, one of {@link StartupTrace} phase constants
+   */
+  public String getPhase() {
+    return phase;
+  }
+
+  /**
+   * @return Property name for inject phase, otherwise same as phase
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return Path of component
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return Path of component whose creation triggered this phase, or null for top level resolution
+   */
+  public String getParent() {
+    return parent;
+  }
+
+  public long getThreadId() {
+    return threadId;
+  }
+
+  public String getThreadName() {
+    return threadName;
+  }
+
+  /**
+   * @return Start in nano seconds, from {@link System#nanoTime()}
+   */
+  public long getStart() {
+    return start;
+  }
+
+  public long getDuration() {
+    return duration;
+  }
+
+  public long getEnd() {
+    return start + duration;
+  }
+
+}
@@ -0,0 +1,150 @@
+package vinscom.ioc.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Text summary of startup trace: time by phase, slowest components by own time and by total time, and critical path.
+ *
+ * Own time of resolution is its duration less duration of resolutions it triggered on same thread. Critical path
+ * starts at top level resolution which finished last, and follows resolution it triggered which finished last.
+ *
+ * @author vinay
+ */
+public class TraceSummary {
+
+  private static final int TOP = 20;
+
+  private final List<TraceEvent> events;
+  private final List<TraceEvent> resolutions;
+  private final Map<TraceEvent, List<TraceEvent>> children = new LinkedHashMap<>();
+  private final Map<String, Component> components = new LinkedHashMap<>();
+
+  public TraceSummary(List<TraceEvent> pEvents) {
+    this.events = pEvents;
+    this.resolutions = pEvents
+            .stream()
+            .filter((e) -> StartupTrace.RESOLVE.equals(e.getPhase()))
+            .collect(Collectors.toList());
+
+    Map<String, List<TraceEvent>> byParent = resolutions
+            .stream()
+            .filter((e) -> e.getParent() != null)
+            .collect(Collectors.groupingBy(TraceEvent::getParent));
+
+    for (TraceEvent resolution : resolutions) {
+
+      List<TraceEvent> triggered = byParent
+              .getOrDefault(resolution.getPath(), new ArrayList<>())
+              .stream()
+              .filter((c) -> c.getStart() >= resolution.getStart() && c.getEnd() <= resolution.getEnd())
+              .collect(Collectors.toList());
+
+      children.put(resolution, triggered);
+
+      long nested = triggered
+              .stream()
+              .filter((c) -> c.getThreadId() == resolution.getThreadId())
+              .mapToLong(TraceEvent::getDuration)
+              .sum();
+
+      components
+              .computeIfAbsent(resolution.getPath(), Component::new)
+              .add(resolution.getDuration(), Math.max(0, resolution.getDuration() - nested));
+    }
+  }
+
+  /**
+   * @return Resolutions from top level resolution finished last down to resolution without any further resolution
+   */
+  public List<TraceEvent> getCriticalPath() {
+
+    List<TraceEvent> result = new ArrayList<>();
+    TraceEvent current = resolutions
+            .stream()
+            .filter((e) -> e.getParent() == null)
+            .max(Comparator.comparingLong(TraceEvent::getEnd))
+            .orElse(null);
+
+    while (current != null) {
+      result.add(current);
+      current = children
+              .get(current)
+              .stream()
+              .max(Comparator.comparingLong(TraceEvent::getEnd))
+              .orElse(null);
+    }
+
+    return result;
+  }
+
+  @Override
+  public String toString() {
+
+    StringBuilder sb = new StringBuilder();
+
+    sb.append("Time by phase (ms, phases nest, so they add up to more than startup)\n");
+    Map<String, Long> phases = new TreeMap<>();
+    events.forEach((e) -> phases.merge(e.getPhase(), e.getDuration(), Long::sum));
+    phases.forEach((phase, duration) -> sb.append(String.format("  %-10s %12.3f%n", phase, ms(duration))));
+
+    sb.append("\nSlowest components by own time (ms)\n");
+    append(sb, Comparator.comparingLong(Component::getSelf));
+
+    sb.append("\nSlowest components by total time (ms)\n");
+    append(sb, Comparator.comparingLong(Component::getTotal));
+
+    sb.append("\nCritical path (ms)\n");
+    for (TraceEvent event : getCriticalPath()) {
+      sb.append(String.format("  %12.3f  %s [%s]%n", ms(event.getDuration()), event.getPath(), event.getThreadName()));
+    }
+
+    return sb.toString();
+  }
+
+  private void append(StringBuilder pBuilder, Comparator<Component> pOrder) {
+    pBuilder.append(String.format("  %12s %12s %8s  %s%n", "own", "total", "count", "component"));
+    components
+            .values()
+            .stream()
+            .sorted(pOrder.reversed())
+            .limit(TOP)
+            .forEach((c) -> pBuilder.append(String.format("  %12.3f %12.3f %8d  %s%n", ms(c.self), ms(c.total), c.count, c.path)));
+  }
+
+  private static double ms(long pNanos) {
+    return pNanos / 1_000_000.0;
+  }
+
+  private static class Component {
+
+    private final String path;
+    private long total;
+    private long self;
+    private int count;
+
+    private Component(String pPath) {
+      this.path = pPath;
+    }
+
+    private void add(long pTotal, long pSelf) {
+      total += pTotal;
+      self += pSelf;
+      count++;
+    }
+
+    private long getTotal() {
+      return total;
+    }
+
+    private long getSelf() {
+      return self;
+    }
+  }
+
+}
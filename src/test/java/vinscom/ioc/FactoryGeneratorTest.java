@@ -0,0 +1,90 @@
+package vinscom.ioc;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import vinscom.ioc.common.Util;
+import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.converter.ConverterRegistry;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+import vinscom.ioc.test.component.PropertiesComponent;
+
+public class FactoryGeneratorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testGenerate() {
+
+    Map<String, String> sources = new FactoryGenerator(Util.getSystemLayers()).generate();
+
+    String index = sources.get("vinscom/ioc/generated/ComponentFactories.java");
+    assertTrue(index.contains("case \"/vinscom/ioc/test/component/PropertiesComponent\":"));
+
+    String factory = sources.get("vinscom/ioc/generated/Factory_vinscom_ioc_test_component_PropertiesComponent.java");
+    assertTrue(factory.contains("return new vinscom.ioc.test.component.PropertiesComponent();"));
+    assertTrue(factory.contains("instance.setPropInt((java.lang.Integer) pValue);"));
+    assertTrue(factory.contains("((vinscom.ioc.test.component.PropertiesComponent) pInstance).startup();"));
+  }
+
+  @Test
+  public void testUnknownSetter() throws Exception {
+
+    Path layer = folder.newFolder("layer").toPath();
+    Files.createDirectories(layer.resolve("a"));
+    Files.write(layer.resolve("a/Broken.properties"), "$class=vinscom.ioc.test.component.PropertiesComponent\nnoSuchProperty=1\n".getBytes());
+
+    try {
+      new FactoryGenerator(Collections.singletonList(layer.toString())).generate();
+      fail("Generation must fail on property without setter");
+    } catch (RuntimeException ex) {
+      assertTrue(ex.getMessage().contains("Component[/a/Broken]:No setter found for property:noSuchProperty"));
+    }
+  }
+
+  @Test
+  public void testFallback() throws Exception {
+
+    ListMultimap<String, ValueWithModifier> properties = ArrayListMultimap.create();
+    properties.put("$class", new ValueWithModifier(PropertiesComponent.class.getName(), PropertyValueModifier.NONE));
+    properties.put("propString", new ValueWithModifier("generated", PropertyValueModifier.NONE));
+
+    ComponentFactory factory = new ComponentFactory("/a/Component", ComponentFactory.fingerprint(properties), PropertiesComponent.class,
+            new String[]{"propString"}, new String[]{"setPropString"}, new Class<?>[]{String.class}, null) {
+      @Override
+      public Object newInstance() {
+        return new PropertiesComponent();
+      }
+
+      @Override
+      public void set(Object pInstance, int pProperty, Object pValue) {
+        ((PropertiesComponent) pInstance).setPropString("factory:" + pValue);
+      }
+    };
+
+    ComponentPlan plan = ComponentPlan.compile("/a/Component", properties, ConverterRegistry.getDefault(), false, factory);
+    assertSame(factory, plan.getFactory());
+    assertNull(plan.getStartInvoker());
+
+    PropertiesComponent instance = (PropertiesComponent) plan.newInstance();
+    plan.getPropertyPlans().get(0).getSetter().invoke(instance, "value");
+    assertEquals("factory:value", instance.getPropString());
+    assertEquals("setPropString", plan.getPropertyPlans().get(0).getSetter().getName());
+
+    //Layer added at runtime overrides property
+    properties.put("propString", new ValueWithModifier("overridden", PropertyValueModifier.NONE));
+
+    plan = ComponentPlan.compile("/a/Component", properties, ConverterRegistry.getDefault(), false, factory);
+    assertNull(plan.getFactory());
+    assertEquals("startup", plan.getStartInvoker().getName());
+  }
+
+}
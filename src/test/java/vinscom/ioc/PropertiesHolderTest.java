@@ -1,9 +1,29 @@
 package vinscom.ioc;
 
+import com.google.common.collect.ListMultimap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.*;
+import vinscom.ioc.common.CompactProperties;
 import vinscom.ioc.common.Constant;
+import vinscom.ioc.common.Util;
+import vinscom.ioc.common.ValueWithModifier;
 
 /**
  *
@@ -11,6 +31,9 @@ import vinscom.ioc.common.Constant;
  */
 public class PropertiesHolderTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void testInit() {
     System.out.println("init");
@@ -22,4 +45,182 @@ public class PropertiesHolderTest {
     assertTrue(instance.isInitialized());
   }
 
+  @Test
+  public void testInitAsync() {
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(Arrays.asList(System.getProperty(Constant.SystemProperties.LAYERS).split(Constant.SystemProperties.SEPERATOR)));
+
+    instance.initAsync().join();
+
+    assertTrue(instance.isInitialized());
+    assertEquals("TestString2", Util.getLastValue(instance.getPropertiesCache().get("/vinscom/ioc/test/component/MergedComponent"), "propString"));
+  }
+
+  @Test
+  public void testLazy() {
+    List<String> layers = Arrays.asList(System.getProperty(Constant.SystemProperties.LAYERS).split(Constant.SystemProperties.SEPERATOR));
+
+    PropertiesRepository eager = new PropertiesRepository();
+    eager.setLayers(layers);
+    eager.init();
+
+    PropertiesRepository lazy = new PropertiesRepository();
+    lazy.setLayers(layers);
+    lazy.setLazy(true);
+    lazy.init();
+
+    assertTrue(lazy.isInitialized());
+    assertEquals("a,b,c", Util.getLastValue(lazy.getPropertiesCache().get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray").replaceAll("\\s", ""));
+    assertSame(lazy.getPropertiesCache().get("/vinscom/ioc/test/component/MergedComponent"), lazy.getPropertiesCache().get("/vinscom/ioc/test/component/MergedComponent"));
+    assertNull(lazy.getPropertiesCache().get("/vinscom/ioc/test/component/NotDefined"));
+    assertEquals(eager.getPropertiesCache().keySet(), lazy.getPropertiesCache().keySet());
+    for (String path : eager.getPropertiesCache().keySet()) {
+      assertEquals(path, eager.getPropertiesCache().get(path), lazy.getPropertiesCache().get(path));
+    }
+  }
+
+  @Test
+  public void testSnapshot() throws IOException {
+    List<String> layers = copyLayers();
+    Path snapshot = folder.getRoot().toPath().resolve("glue.snapshot");
+
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(layers);
+    instance.setSnapshotFile(snapshot);
+    instance.init();
+    assertTrue(Files.exists(snapshot));
+
+    PropertiesRepository restored = new PropertiesRepository();
+    restored.setLayers(layers);
+    restored.setSnapshotFile(snapshot);
+    restored.init();
+    assertEquals(instance.getPropertiesCache().keySet(), restored.getPropertiesCache().keySet());
+    assertEquals("TestString2", Util.getLastValue(restored.getPropertiesCache().get("/vinscom/ioc/test/component/MergedComponent"), "propString"));
+    assertEquals("a,b,c", Util.getLastValue(restored.getPropertiesCache().get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray").replaceAll("\\s", ""));
+
+    Path changed = Paths.get(layers.get(0), "vinscom/ioc/test/component/PropertiesComponent.properties");
+    Files.write(changed, Arrays.asList("$class=vinscom.ioc.test.component.PropertiesComponent", "propArray=x,y"), StandardCharsets.UTF_8);
+
+    PropertiesRepository updated = new PropertiesRepository();
+    updated.setLayers(layers);
+    updated.setSnapshotFile(snapshot);
+    updated.init();
+    assertEquals("x,y", Util.getLastValue(updated.getPropertiesCache().get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray"));
+    assertEquals("TestString2", Util.getLastValue(updated.getPropertiesCache().get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propString"));
+    assertEquals("TestString2", Util.getLastValue(updated.getPropertiesCache().get("/vinscom/ioc/test/component/MergedComponent"), "propString"));
+  }
+
+  @Test
+  public void testReload() throws IOException, InterruptedException {
+    List<String> layers = copyLayers();
+    BlockingQueue<Set<String>> reloaded = new LinkedBlockingQueue<>();
+
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(layers);
+    instance.setReload(true);
+    instance.addReloadListener(reloaded::add);
+    instance.init();
+
+    try {
+      Map<String, ListMultimap<String, ValueWithModifier>> before = instance.getPropertiesCache();
+      Path changed = Paths.get(layers.get(0), "vinscom/ioc/test/component/PropertiesComponent.properties");
+      Files.write(changed, Arrays.asList("$class=vinscom.ioc.test.component.PropertiesComponent", "propArray=x,y"), StandardCharsets.UTF_8);
+
+      Set<String> paths = reloaded.poll(30, TimeUnit.SECONDS);
+      assertNotNull("Change must be reloaded", paths);
+      assertTrue(paths.contains("/vinscom/ioc/test/component/PropertiesComponent"));
+      assertTrue(paths.contains("/vinscom/ioc/test/component/BasedOnPropertiesComponent"));
+      assertFalse(paths.contains("/vinscom/ioc/test/component/MergedComponent"));
+      assertEquals(1, instance.getVersion());
+
+      Map<String, ListMultimap<String, ValueWithModifier>> after = instance.getPropertiesCache();
+      assertEquals("a,b,c", Util.getLastValue(before.get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray").replaceAll("\\s", ""));
+      assertEquals("x,y", Util.getLastValue(after.get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray"));
+      assertSame(before.get("/vinscom/ioc/test/component/MergedComponent"), after.get("/vinscom/ioc/test/component/MergedComponent"));
+    } finally {
+      instance.close();
+    }
+  }
+
+  @Test
+  public void testReloadMalformed() throws IOException {
+    List<String> layers = copyLayers();
+
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(layers);
+    instance.setReload(true);
+    instance.init();
+
+    try {
+      Path changed = Paths.get(layers.get(0), "vinscom/ioc/test/component/PropertiesComponent.properties");
+      Files.write(changed, Arrays.asList("$class=vinscom.ioc.test.component.PropertiesComponent", "=x,y"), StandardCharsets.UTF_8);
+      instance.reload(Collections.singleton(changed));
+
+      assertEquals(0, instance.getVersion());
+      assertEquals("a,b,c", Util.getLastValue(instance.getPropertiesCache().get("/vinscom/ioc/test/component/BasedOnPropertiesComponent"), "propArray").replaceAll("\\s", ""));
+      assertEquals("vinscom.ioc.test.component.PropertiesComponent", Util.getLastValue(instance.getPropertiesCache().get("/vinscom/ioc/test/component/PropertiesComponent"), Constant.Component.CLASS));
+    } finally {
+      instance.close();
+    }
+  }
+
+  @Test
+  public void testBasedOnChain() throws IOException {
+    Path layer = folder.newFolder().toPath();
+    Files.write(layer.resolve("Base.properties"), Arrays.asList("$class=vinscom.ioc.test.component.PropertiesComponent", "propString=Base", "propList=a"), StandardCharsets.UTF_8);
+    Files.write(layer.resolve("Middle.properties"), Arrays.asList("$basedOn=/Base", "propList+=b"), StandardCharsets.UTF_8);
+    Files.write(layer.resolve("Leaf.properties"), Arrays.asList("$basedOn=/Middle", "propString=Leaf"), StandardCharsets.UTF_8);
+    Files.write(layer.resolve("Other.properties"), Arrays.asList("$basedOn=/Middle"), StandardCharsets.UTF_8);
+
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(Arrays.asList(layer.toString()));
+    instance.init();
+
+    ListMultimap<String, ValueWithModifier> leaf = instance.getPropertiesCache().get("/Leaf");
+    assertEquals("Leaf", Util.getLastValue(leaf, "propString"));
+    assertEquals("vinscom.ioc.test.component.PropertiesComponent", Util.getLastValue(leaf, Constant.Component.CLASS));
+    assertEquals(2, leaf.get("propList").size());
+    assertEquals("b", Util.getLastValue(leaf, "propList"));
+    assertFalse(leaf.containsKey(Constant.Component.BASED_ON));
+    assertSame(instance.getPropertiesCache().get("/Middle"), ((CompactProperties) leaf).getParent());
+    assertSame(((CompactProperties) leaf).getParent(), ((CompactProperties) instance.getPropertiesCache().get("/Other")).getParent());
+  }
+
+  @Test
+  public void testCyclicBasedOn() throws IOException {
+    Path layer = folder.newFolder().toPath();
+    Files.write(layer.resolve("A.properties"), Arrays.asList("$basedOn=/B"), StandardCharsets.UTF_8);
+    Files.write(layer.resolve("B.properties"), Arrays.asList("$basedOn=/A"), StandardCharsets.UTF_8);
+
+    PropertiesRepository instance = new PropertiesRepository();
+    instance.setLayers(Arrays.asList(layer.toString()));
+
+    try {
+      instance.init();
+      fail("Cyclic $basedOn must be reported");
+    } catch (RuntimeException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains("Cyclic $basedOn"));
+    }
+  }
+
+  private List<String> copyLayers() throws IOException {
+    List<String> result = new ArrayList<>();
+    for (String layer : System.getProperty(Constant.SystemProperties.LAYERS).split(Constant.SystemProperties.SEPERATOR)) {
+      Path source = Paths.get(layer);
+      Path target = folder.newFolder().toPath();
+      try (Stream<Path> paths = Files.walk(source)) {
+        for (Path path : (Iterable<Path>) paths::iterator) {
+          Path copy = target.resolve(source.relativize(path).toString());
+          if (Files.isDirectory(path)) {
+            Files.createDirectories(copy);
+          } else {
+            Files.copy(path, copy);
+          }
+        }
+      }
+      result.add(target.toString());
+    }
+    return result;
+  }
+
 }
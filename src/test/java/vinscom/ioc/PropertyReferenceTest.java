@@ -0,0 +1,66 @@
+package vinscom.ioc;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PropertyReferenceTest {
+
+  @Test
+  public void testChain() {
+    Node root = new Node("root", new Node("child", null));
+    PropertyReference reference = PropertyReference.compile("/a/Component.next.name", String.class);
+
+    assertEquals("/a/Component", reference.getComponentPath());
+    assertEquals("next.name", reference.getProperty());
+    assertEquals("child", reference.getValue(root, -1));
+    assertNull(PropertyReference.compile("/a/Component.next.next.name", String.class).getValue(root, -1));
+    assertSame(root, PropertyReference.compile("/a/Component", Node.class).getValue(root, -1));
+    assertEquals(true, PropertyReference.compile("/a/Component.next.enabled", boolean.class).getValue(root, -1));
+    assertEquals(true, PropertyReference.compile("/a/Component.active", boolean.class).getValue(root, -1));
+  }
+
+  @Test
+  public void testSnapshot() {
+    Node root = new Node("first", null);
+    PropertyReference reference = PropertyReference.compile("/a/Component.name", String.class);
+
+    assertEquals("first", reference.getValue(root, 1));
+    root.setName("second");
+    assertEquals("first", reference.getValue(root, 1));
+    assertEquals("second", reference.getValue(root, 2));
+    root.setName("third");
+    assertEquals("third", reference.getValue(root, -1));
+  }
+
+  public static class Node {
+
+    private String name;
+    private final Node next;
+
+    public Node(String pName, Node pNext) {
+      this.name = pName;
+      this.next = pNext;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String pName) {
+      this.name = pName;
+    }
+
+    public Node getNext() {
+      return next;
+    }
+
+    public boolean isEnabled() {
+      return true;
+    }
+
+    public Boolean getActive() {
+      return true;
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+package vinscom.ioc.common;
+
+import java.lang.reflect.InvocationTargetException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import vinscom.ioc.test.component.PropertiesComponent;
+
+public class ClassMetadataTest {
+
+  @Test
+  public void testMetadataIsSharedPerClass() {
+    assertSame(ClassMetadata.of(PropertiesComponent.class), ClassMetadata.forName(PropertiesComponent.class.getName()));
+  }
+
+  @Test
+  public void testSetterLookup() {
+    ClassMetadata metadata = ClassMetadata.of(PropertiesComponent.class);
+    assertEquals("setPropInt", metadata.getSetter("propInt").getName());
+    assertEquals(int.class, metadata.getSetterArgumentClass("propInt"));
+    assertNull(metadata.getSetter("propUnknown"));
+    assertEquals("startup", metadata.getStartMethod().getName());
+  }
+
+  @Test
+  public void testNewInstance() {
+    Object inst = ClassMetadata.of(PropertiesComponent.class).newInstance();
+    assertEquals(PropertiesComponent.class, inst.getClass());
+  }
+
+  @Test
+  public void testInvoker() throws Exception {
+    ClassMetadata metadata = ClassMetadata.of(PropertiesComponent.class);
+    PropertiesComponent inst = new PropertiesComponent();
+    metadata.getSetterInvoker("propInt").invoke(inst, 5);
+    metadata.getSetterInvoker("propBoolean").invoke(inst, true);
+    assertEquals(5, inst.getPropInt());
+    assertEquals(5, metadata.getInvoker("getPropInt").invoke(inst));
+    assertEquals(true, metadata.getInvoker("isPropBoolean").invoke(inst));
+    metadata.getStartInvoker().invoke(inst);
+    assertTrue(inst.isStartup());
+  }
+
+  @Test
+  public void testInvokerArgumentMismatch() throws Exception {
+    ClassMetadata metadata = ClassMetadata.of(PropertiesComponent.class);
+    PropertiesComponent inst = new PropertiesComponent();
+
+    try {
+      metadata.getSetterInvoker("propInt").invoke(inst, "5");
+      fail("Wrong argument type must not be reported as thrown by setter");
+    } catch (IllegalArgumentException ex) {
+      assertTrue(ex.getMessage().contains("setPropInt"));
+    }
+
+    try {
+      metadata.getSetterInvoker("propInt").invoke(inst, null);
+      fail("Null for primitive must not be reported as thrown by setter");
+    } catch (IllegalArgumentException ex) {
+      assertTrue(ex.getMessage().contains("null"));
+    }
+
+    try {
+      metadata.getInvoker("getPropInt").invoke(new Object());
+      fail("Wrong instance must not be reported as thrown by getter");
+    } catch (IllegalArgumentException ex) {
+      assertTrue(ex.getMessage().contains("getPropInt"));
+    }
+  }
+
+  @Test
+  public void testInvokerTargetException() throws Exception {
+    try {
+      ClassMetadata.of(Failing.class).getSetterInvoker("value").invoke(new Failing(), "value");
+      fail("Exception thrown by setter must be wrapped");
+    } catch (InvocationTargetException ex) {
+      assertEquals("thrown by setter", ex.getCause().getMessage());
+    }
+  }
+
+  public static class Failing {
+
+    public void setValue(Object pValue) {
+      throw new ClassCastException("thrown by setter");
+    }
+
+  }
+
+}
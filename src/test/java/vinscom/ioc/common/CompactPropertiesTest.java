@@ -0,0 +1,52 @@
+package vinscom.ioc.common;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+
+public class CompactPropertiesTest {
+
+  @Test
+  public void testCopyOf() {
+    ListMultimap<String, ValueWithModifier> source = ArrayListMultimap.create();
+    source.put("$class", new ValueWithModifier("vinscom.ioc.test.component.PropertiesComponent", PropertyValueModifier.NONE));
+    source.put("propList", new ValueWithModifier("a", PropertyValueModifier.NONE));
+    source.put("propList", new ValueWithModifier("b", PropertyValueModifier.PLUS));
+    source.put("propEmpty", new ValueWithModifier("", PropertyValueModifier.NONE));
+
+    CompactProperties result = CompactProperties.copyOf(source);
+
+    assertEquals(source, result);
+    assertEquals(source.hashCode(), result.hashCode());
+    assertEquals(4, result.size());
+    assertEquals(Arrays.asList(source.keySet().toArray()), Arrays.asList(result.keySet().toArray()));
+    assertEquals(Arrays.asList(source.entries().toArray()), Arrays.asList(result.entries().toArray()));
+    assertEquals(source.get("propList"), result.get("propList"));
+    assertEquals("b", Util.getLastValue(result, "propList"));
+    assertTrue(result.get("missing").isEmpty());
+    assertEquals(2, result.keys().count("propList"));
+  }
+
+  @Test
+  public void testInterned() {
+    ListMultimap<String, ValueWithModifier> first = ArrayListMultimap.create();
+    first.put(new String("propComponent"), new ValueWithModifier(new String("/vinscom/ioc/test/component/PropertiesComponent"), PropertyValueModifier.NONE));
+    ListMultimap<String, ValueWithModifier> second = ArrayListMultimap.create();
+    second.put(new String("propComponent"), new ValueWithModifier(new String("/vinscom/ioc/test/component/PropertiesComponent"), PropertyValueModifier.NONE));
+
+    CompactProperties a = CompactProperties.copyOf(first);
+    CompactProperties b = CompactProperties.copyOf(second);
+
+    assertSame(a.keySet().iterator().next(), b.keySet().iterator().next());
+    assertSame(a.get("propComponent").get(0), b.get("propComponent").get(0));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnly() {
+    CompactProperties.copyOf(ArrayListMultimap.create()).put("a", new ValueWithModifier("b", PropertyValueModifier.NONE));
+  }
+
+}
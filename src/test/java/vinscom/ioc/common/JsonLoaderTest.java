@@ -1,10 +1,22 @@
 package vinscom.ioc.common;
 
 import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.*;
 
 public class JsonLoaderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
   
   public JsonLoaderTest() {
   }
@@ -18,5 +30,49 @@ public class JsonLoaderTest {
     JsonObject result = JsonLoader.load(pComponentPath, pFile);
     assertEquals(expResult.toString(), result.toString());
   }
+
+  @Test
+  public void testCache() throws IOException {
+    List<String> layers = JsonLoader.layers;
+    Path layer = folder.newFolder().toPath();
+    Path file = layer.resolve("test.json");
+    Files.write(file, "{\"name\":\"first\"}".getBytes(StandardCharsets.UTF_8));
+
+    try {
+      JsonLoader.layers = Arrays.asList(layer.toString());
+
+      JsonObject first = JsonLoader.load("/Component", "test.json");
+      first.put("name", "changed by caller");
+      assertEquals("first", JsonLoader.load("/Component", "test.json").getString("name"));
+
+      Files.write(file, "{\"name\":\"second\"}".getBytes(StandardCharsets.UTF_8));
+      assertEquals("second", JsonLoader.load("/Component", "test.json").getString("name"));
+    } finally {
+      JsonLoader.layers = layers;
+    }
+  }
+
+  @Test
+  public void testReadFailure() throws IOException {
+    List<String> layers = JsonLoader.layers;
+    Path layer = folder.newFolder().toPath();
+    Files.write(layer.resolve("utf8.json"), "{\"name\":\"caf\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+    Files.createDirectories(layer.resolve("broken.json"));
+
+    try {
+      JsonLoader.layers = Arrays.asList(layer.toString());
+
+      assertEquals("caf\u00e9", JsonLoader.load("/Component", "utf8.json").getString("name"));
+
+      try {
+        JsonLoader.load("/Component", "broken.json");
+        fail("File which can't be read must be reported");
+      } catch (UncheckedIOException ex) {
+        assertTrue(ex.getMessage(), ex.getMessage().contains(layer.resolve("broken.json").toString()));
+      }
+    } finally {
+      JsonLoader.layers = layers;
+    }
+  }
   
 }
@@ -0,0 +1,74 @@
+package vinscom.ioc.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class LayerIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testIndex() throws IOException {
+    Path layer1 = folder.newFolder().toPath();
+    Path layer2 = folder.newFolder().toPath();
+    Path file1 = write(layer1.resolve("a/config.json"));
+    Path file2 = write(layer2.resolve("a/config.json"));
+
+    LayerIndex.Builder builder = new LayerIndex.Builder(Arrays.asList(layer1.toString(), layer2.toString()));
+    builder.add(layer1, file1, Files.readAttributes(file1, BasicFileAttributes.class));
+    builder.add(layer2, file2, Files.readAttributes(file2, BasicFileAttributes.class));
+    LayerIndex index = builder.build();
+
+    assertEquals(file2, index.getFile("/a/config.json").getPath());
+    assertEquals(2, index.getFiles("/a/config.json").size());
+    assertNull(index.getFile("/a/missing.json"));
+
+    Files.delete(file2);
+    Path file3 = write(layer2.resolve("b/c/other.json"));
+    LayerIndex updated = index.update(Arrays.asList(file2, layer2.resolve("b")));
+
+    assertEquals(file1, updated.getFile("/a/config.json").getPath());
+    assertEquals(file3, updated.getFile("/b/c/other.json").getPath());
+    assertEquals(file2, index.getFile("/a/config.json").getPath());
+
+    Files.delete(file1);
+    assertTrue(updated.update(Collections.singleton(layer1.resolve("a"))).getFiles("/a/config.json").isEmpty());
+  }
+
+  @Test
+  public void testLayerNotNormalized() throws IOException {
+    Path layer1 = folder.newFolder().toPath();
+    Path layer2 = folder.newFolder().toPath();
+    String spelled2 = layer2.resolve("x").toString() + "/../";
+    Path file1 = write(layer1.resolve("a/config.json"));
+    Path file2 = write(layer2.resolve("a/config.json"));
+
+    LayerIndex.Builder builder = new LayerIndex.Builder(Arrays.asList(layer1.toString() + "/", spelled2));
+    builder.add(Paths.get(layer1.toString() + "/"), file1, Files.readAttributes(file1, BasicFileAttributes.class));
+    builder.add(layer2, file2, Files.readAttributes(file2, BasicFileAttributes.class));
+    LayerIndex index = builder.build();
+
+    assertEquals(file2, index.getFile("/a/config.json").getPath());
+    assertEquals(2, index.getFiles("/a/config.json").size());
+
+    Path file3 = write(layer1.resolve("b/other.json"));
+    assertEquals(file3, index.update(Collections.singleton(file3)).getFile("/b/other.json").getPath());
+    assertEquals(Integer.valueOf(1), LayerIndex.toLayerOrder(Arrays.asList(layer1.toString() + "/", spelled2)).get(layer2));
+  }
+
+  private Path write(Path pFile) throws IOException {
+    Files.createDirectories(pFile.getParent());
+    return Files.write(pFile, "{}".getBytes());
+  }
+
+}
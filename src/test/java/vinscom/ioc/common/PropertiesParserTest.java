@@ -0,0 +1,60 @@
+package vinscom.ioc.common;
+
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+
+public class PropertiesParserTest {
+
+  @Test
+  public void testParse() {
+    String text = "#/vinscom/ioc/test/component/MergedComponent\n"
+            + "! comment\n"
+            + "\n"
+            + "$class=vinscom.ioc.test.component.PropertiesComponent\r\n"
+            + "propList-=a\n"
+            + "propMap+ : a=b,\\\n"
+            + "    c=d\n"
+            + "propString^=/vinscom/ioc/test/component/PropertiesComponent.propString\n"
+            + "propTab\\ Key=\\t\\u0041\n"
+            + "propEmpty";
+
+    List<Tuple<String, ValueWithModifier>> result = PropertiesParser.parse("test", text);
+
+    assertEquals(6, result.size());
+    assertEntry(result.get(0), "$class", "vinscom.ioc.test.component.PropertiesComponent", PropertyValueModifier.NONE);
+    assertEntry(result.get(1), "propList", "a", PropertyValueModifier.MINUS);
+    assertEntry(result.get(2), "propMap", "a=b,c=d", PropertyValueModifier.PLUS);
+    assertEntry(result.get(3), "propString", "/vinscom/ioc/test/component/PropertiesComponent.propString", PropertyValueModifier.FROM);
+    assertEntry(result.get(4), "propTab Key", "\tA", PropertyValueModifier.NONE);
+    assertEntry(result.get(5), "propEmpty", "", PropertyValueModifier.NONE);
+  }
+
+  @Test
+  public void testRepeatedProperty() {
+    List<Tuple<String, ValueWithModifier>> result = PropertiesParser.parse("test", "a+=1\nb=2\na+=3\na=4\nb=5");
+
+    assertEquals(3, result.size());
+    assertEntry(result.get(0), "a", "3", PropertyValueModifier.PLUS);
+    assertEntry(result.get(1), "b", "5", PropertyValueModifier.NONE);
+    assertEntry(result.get(2), "a", "4", PropertyValueModifier.NONE);
+  }
+
+  @Test
+  public void testMalformedEntry() {
+    try {
+      PropertiesParser.parse("test", "a=b\n\nc=\\u00zz\n");
+      fail("Malformed entry must be reported");
+    } catch (RuntimeException ex) {
+      assertEquals("test:3: Malformed \\uxxxx encoding", ex.getMessage());
+    }
+  }
+
+  private void assertEntry(Tuple<String, ValueWithModifier> pEntry, String pKey, String pValue, PropertyValueModifier pModifier) {
+    assertEquals(pKey, pEntry.value1);
+    assertEquals(pValue, pEntry.value2.getValue());
+    assertEquals(pModifier, pEntry.value2.getPropertyValueModifier());
+  }
+
+}
@@ -0,0 +1,62 @@
+package vinscom.ioc.converter;
+
+import com.google.common.collect.ImmutableList;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import vinscom.ioc.PropertyPlan;
+import vinscom.ioc.ValueProxy;
+import vinscom.ioc.common.ValueWithModifier;
+import vinscom.ioc.enumeration.PropertyValueModifier;
+import vinscom.ioc.test.component.PropertiesComponent;
+
+public class ConverterRegistryTest {
+
+  @Test
+  public void testBuiltIn() {
+    ConverterRegistry registry = new ConverterRegistry();
+
+    assertNotNull(registry.getConverter(String.class));
+    assertNotNull(registry.getConverter(List.class));
+    assertNotNull(registry.getConverter(int.class));
+    assertNotNull(registry.getConverter(String[].class));
+    assertNull(registry.getConverter(PropertiesComponent.class));
+    assertSame(registry.getConverter(long.class), registry.getConverter(long.class));
+  }
+
+  @Test
+  public void testRegister() {
+    ConverterRegistry registry = new ConverterRegistry();
+    List<ValueWithModifier> value = Arrays.asList(new ValueWithModifier("http://localhost:8080/", PropertyValueModifier.NONE));
+
+    ValueProxy reference = new ValueProxy(URI.class, value, "/vinscom/ioc/test/component/PropertiesComponent", registry);
+    assertTrue(reference.isDeferredValue());
+
+    registry.register(ValueConverter.of(URI.class, (v) -> URI.create(v.getValueAsString())));
+
+    ValueProxy converted = new ValueProxy(URI.class, value, "/vinscom/ioc/test/component/PropertiesComponent", registry);
+    assertFalse(converted.isDeferredValue());
+    converted.process();
+    assertEquals(URI.create("http://localhost:8080/"), converted.getValue());
+  }
+
+  @Test
+  public void testShare() {
+    List<ValueWithModifier> value = Arrays.asList(new ValueWithModifier("a,b", PropertyValueModifier.NONE));
+    ValueProxy template = new ValueProxy(List.class, value, "/vinscom/ioc/test/component/PropertiesComponent");
+
+    PropertyPlan shared = new PropertyPlan("propList", null, template, true);
+    Object first = shared.newValue().getValue();
+    assertTrue(first instanceof ImmutableList);
+    assertSame(first, shared.newValue().getValue());
+    assertEquals(Arrays.asList("a", "b"), first);
+
+    PropertyPlan notShared = new PropertyPlan("propList", null, template, false);
+    ValueProxy copy = notShared.newValue();
+    copy.process();
+    assertFalse(copy.getValue() instanceof ImmutableList);
+  }
+
+}
@@ -0,0 +1,111 @@
+package vinscom.ioc.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import vinscom.ioc.Glue;
+import vinscom.ioc.component.ServiceArray;
+import vinscom.ioc.component.ServiceMap;
+import vinscom.ioc.test.component.CountingComponent;
+import vinscom.ioc.test.component.PropertiesComponent;
+
+public class ConcurrentResolutionTest {
+
+  @Test
+  public void concurrentGlobalResolution() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Callable<PropertiesComponent>> tasks = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      tasks.add(() -> Glue.instance().resolve("/vinscom/ioc/test/component/CyclicGlobalComponent", PropertiesComponent.class));
+    }
+
+    List<Future<PropertiesComponent>> results = executor.invokeAll(tasks);
+    executor.shutdown();
+
+    PropertiesComponent first = results.get(0).get();
+    for (Future<PropertiesComponent> result : results) {
+      assertSame(first, result.get());
+      assertTrue(result.get().isStartup());
+    }
+  }
+
+  @Test
+  public void cyclicGlobalReference() {
+    PropertiesComponent inst = Glue.instance().resolve("/vinscom/ioc/test/component/GlobalPropertiesComponent", PropertiesComponent.class);
+    PropertiesComponent cyclic = (PropertiesComponent) inst.getPropComponent();
+    assertEquals("Cyclic", cyclic.getPropString());
+    assertSame(inst, cyclic.getPropComponent());
+  }
+
+  @Test
+  public void cyclicGlobalReferenceAcrossThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    List<Future<Object>> results = new ArrayList<>();
+    results.add(executor.submit(() -> Glue.instance().resolve("/vinscom/ioc/test/component/CrossThreadA")));
+    results.add(executor.submit(() -> Glue.instance().resolve("/vinscom/ioc/test/component/CrossThreadB")));
+    executor.shutdown();
+
+    for (Future<Object> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+        fail("Singletons created by different threads and referring each other must fail");
+      } catch (ExecutionException ex) {
+        assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().contains("Cyclic reference across threads"));
+      }
+    }
+  }
+
+  @Test
+  public void concurrentFirstServiceAccess() throws Exception {
+    String path = "/vinscom/ioc/test/component/CountingLocalComponent";
+    ServiceMap map = new ServiceMap(Collections.singletonMap("counting", path));
+    ServiceArray array = new ServiceArray(Arrays.asList(path));
+
+    CountingComponent.STARTS.set(0);
+    List<Object> fromMap = accessConcurrently(() -> map.get("counting"));
+    assertEquals(1, CountingComponent.STARTS.get());
+
+    CountingComponent.STARTS.set(0);
+    List<Object> fromArray = accessConcurrently(() -> array.get(0));
+    assertEquals(1, CountingComponent.STARTS.get());
+
+    for (int i = 0; i < fromMap.size(); i++) {
+      assertSame(fromMap.get(0), fromMap.get(i));
+      assertSame(fromArray.get(0), fromArray.get(i));
+    }
+  }
+
+  private List<Object> accessConcurrently(Callable<Object> pAccess) throws Exception {
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    List<Callable<Object>> tasks = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      tasks.add(() -> {
+        barrier.await();
+        return pAccess.call();
+      });
+    }
+
+    List<Object> result = new ArrayList<>();
+    for (Future<Object> future : executor.invokeAll(tasks)) {
+      result.add(future.get());
+    }
+    executor.shutdown();
+    return result;
+  }
+
+}
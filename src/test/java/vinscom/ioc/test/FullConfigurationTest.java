@@ -3,7 +3,14 @@ package vinscom.ioc.test;
 import io.vertx.core.json.JsonObject;
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +21,10 @@ import org.junit.Test;
 
 import vinscom.ioc.Glue;
 import vinscom.ioc.component.Initial;
+import vinscom.ioc.component.ServiceArray;
+import vinscom.ioc.component.ServiceMap;
+import vinscom.ioc.common.FileLoader;
+import vinscom.ioc.common.JsonLoader;
 import vinscom.ioc.common.TestConstant;
 import vinscom.ioc.test.component.EnumTestValues;
 import vinscom.ioc.test.component.PropertiesComponent;
@@ -80,6 +91,21 @@ public class FullConfigurationTest {
     assertEquals(inst.getPropFile().getName(), "testconfig.json");
   }
 
+  @Test
+  public void fileLookupWithoutReload() throws IOException {
+    Glue.instance().resolve("/vinscom/ioc/test/component/PropertiesComponent");
+    //Index of layers is only kept up to date by reload, so file added after startup is found by checking layers
+    Path file = Paths.get(FileLoader.layers.get(FileLoader.layers.size() - 1), "/vinscom/ioc/test/component/added.json");
+    try {
+      Files.write(file, "{\"added\":true}".getBytes(StandardCharsets.UTF_8));
+      assertEquals(file.toFile(), FileLoader.load("/vinscom/ioc/test/component/PropertiesComponent", "added.json"));
+      assertTrue(JsonLoader.load("/vinscom/ioc/test/component/PropertiesComponent", "added.json").getBoolean("added"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+    assertNull(FileLoader.load("/vinscom/ioc/test/component/PropertiesComponent", "added.json"));
+  }
+
   @Test
   public void stringArrayProperty() {
     PropertiesComponent inst = Glue.instance().<PropertiesComponent>resolve("/vinscom/ioc/test/component/PropertiesComponent", PropertiesComponent.class);
@@ -192,6 +218,29 @@ public class FullConfigurationTest {
     assertSame(inst2, inst.getPropServiceArray().get(2));
   }
 
+  @Test
+  public void serviceMapWithoutResolving() {
+    Map<String, String> services = new HashMap<>();
+    services.put("z", "/vinscom/ioc/test/component/GlobalObjectByDefault");
+    services.put("a", "/vinscom/ioc/test/component/PropertiesComponent");
+    ServiceMap map = new ServiceMap(services);
+
+    assertEquals(2, map.size());
+    assertEquals(Arrays.asList("a", "z"), new ArrayList<>(map.keySet()));
+    assertFalse(map.isResolved());
+
+    assertEquals(Arrays.asList("a", "z"), new ArrayList<>(map.getServices().keySet()));
+    assertSame(Glue.instance().resolve("/vinscom/ioc/test/component/GlobalObjectByDefault"), map.get("z"));
+    assertSame(map.getServices(), map.getServices());
+    assertTrue(map.isResolved());
+
+    ServiceArray array = new ServiceArray(Arrays.asList("/vinscom/ioc/test/component/PropertiesComponent", "/vinscom/ioc/test/component/GlobalObjectByDefault"));
+    assertEquals(2, array.size());
+    assertFalse(array.isResolved());
+    assertSame(map.get("z"), array.get(1));
+    assertEquals(2, array.getServices().size());
+  }
+
   @Test
   public void componentInitial() {
     Initial inst = Glue.instance().<Initial>resolve("/vinscom/ioc/test/component/Initial", Initial.class);
@@ -202,6 +251,42 @@ public class FullConfigurationTest {
     });
   }
 
+  @Test
+  public void componentParallelInitial() {
+    Initial inst = Glue.instance().<Initial>resolve("/vinscom/ioc/test/component/ParallelInitial", Initial.class);
+    List<Object> comps = inst.getComponents();
+    assertEquals(4, comps.size());
+    assertNotSame(comps.get(0), comps.get(3));
+    assertSame(Glue.instance().resolve("/vinscom/ioc/test/component/GlobalPropertiesComponent"), comps.get(1));
+    assertEquals("TestString2", ((PropertiesComponent) comps.get(2)).getPropString());
+    comps.forEach((comp) -> {
+      assertTrue(((PropertiesComponent) comp).isStartup());
+    });
+  }
+
+  @Test
+  public void componentParallelInitialWithUnresolvedServiceMapEntry() {
+    //Members of ServiceMap are resolved on first access, not started ahead, so unconfigured member doesn't fail startup
+    Initial inst = Glue.instance().<Initial>resolve("/vinscom/ioc/test/component/UnresolvedServiceMapInitial", Initial.class);
+    ServiceMap services = ((PropertiesComponent) inst.getComponents().get(0)).getPropServiceMap();
+    assertEquals(2, services.size());
+    assertEquals(new HashSet<>(Arrays.asList("a", "b")), services.keySet());
+  }
+
+  @Test(timeout = 10000)
+  public void componentParallelInitialReferringBack() {
+    try {
+      Glue.instance().resolve("/vinscom/ioc/test/component/CyclicParallelInitial");
+      fail("Component started in parallel and referring back to Initial must fail");
+    } catch (RuntimeException ex) {
+      Throwable cause = ex;
+      while (cause != null && !String.valueOf(cause.getMessage()).contains("Cyclic reference across threads")) {
+        cause = cause.getCause();
+      }
+      assertNotNull("Expected cyclic reference error", cause);
+    }
+  }
+
   @Test
   public void refComponentTest() {
     PropertiesComponent inst = Glue.instance().<PropertiesComponent>resolve("/vinscom/ioc/test/component/PropertiesComponent", PropertiesComponent.class);
@@ -236,4 +321,26 @@ public class FullConfigurationTest {
      assertNull(inst.getPropNullServiceMap());
      assertNull(inst.getPropNullComponent());
    }
+
+  @Test
+  public void localReferringGlobalReferringLocal() {
+    PropertiesComponent local = Glue.instance().resolve("/vinscom/ioc/test/component/LocalReferringGlobal", PropertiesComponent.class);
+    PropertiesComponent global = (PropertiesComponent) local.getPropComponent();
+    assertSame(Glue.instance().resolve("/vinscom/ioc/test/component/GlobalReferringLocal"), global);
+    //GLOBAL component gets its own LOCAL instance, which gets GLOBAL under construction
+    PropertiesComponent other = (PropertiesComponent) global.getPropComponent();
+    assertNotSame(local, other);
+    assertSame(global, other.getPropComponent());
+  }
+
+  @Test
+  public void cyclicLocalReference() {
+    try {
+      Glue.instance().resolve("/vinscom/ioc/test/component/LocalCycleA");
+      fail("LOCAL components referring each other must fail");
+    } catch (RuntimeException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains("Cyclic reference between LOCAL components"));
+    }
+  }
+
 }
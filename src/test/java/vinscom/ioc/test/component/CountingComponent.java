@@ -0,0 +1,20 @@
+package vinscom.ioc.test.component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import vinscom.ioc.annotation.StartService;
+
+/**
+ * Component counting how many of its instances are started.
+ */
+public class CountingComponent {
+
+  public static final AtomicInteger STARTS = new AtomicInteger();
+
+  @StartService
+  public void startup() throws InterruptedException {
+    STARTS.incrementAndGet();
+    //Let other threads reach services while first one is resolving them
+    Thread.sleep(50);
+  }
+
+}
@@ -0,0 +1,34 @@
+package vinscom.ioc.test.component;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Component whose constructor waits till another thread is creating one too, so two threads own their creations before
+ * either resolves its peer.
+ */
+public class CrossThreadComponent {
+
+  public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+  private Object peer;
+
+  public CrossThreadComponent() {
+    try {
+      BARRIER.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException | BrokenBarrierException | TimeoutException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  public Object getPeer() {
+    return peer;
+  }
+
+  public void setPeer(Object pPeer) {
+    this.peer = pPeer;
+  }
+
+}
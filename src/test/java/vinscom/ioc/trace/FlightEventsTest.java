@@ -0,0 +1,98 @@
+package vinscom.ioc.trace;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assume;
+import org.junit.Test;
+import vinscom.ioc.Glue;
+import static org.junit.Assert.*;
+
+public class FlightEventsTest {
+
+  private static final String PATH = "/vinscom/ioc/test/component/PropertiesComponent";
+
+  @Test
+  public void testEvents() throws Exception {
+
+    Assume.assumeTrue(FlightEvents.isSupported());
+
+    Path file = Files.createTempFile("glue", ".jfr");
+    List<RecordedEvent> events;
+
+    try (Recording recording = new Recording()) {
+      recording.enable("vinscom.ioc.Resolve").withThreshold(Duration.ZERO);
+      recording.enable("vinscom.ioc.Inject").withThreshold(Duration.ZERO);
+      recording.enable("vinscom.ioc.FileLookup");
+      recording.start();
+      Glue.instance().resolve(PATH);
+      recording.stop();
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+
+    RecordedEvent resolve = events
+            .stream()
+            .filter((e) -> e.getEventType().getName().equals("vinscom.ioc.Resolve") && PATH.equals(e.getString("path")))
+            .findFirst()
+            .get();
+
+    assertEquals(1, events
+            .stream()
+            .filter((e) -> e.getEventType().getName().equals("vinscom.ioc.Resolve") && PATH.equals(e.getString("path")))
+            .count());
+    assertTrue(resolve.getBoolean("created"));
+    assertEquals("LOCAL", resolve.getString("scope"));
+    assertEquals("vinscom.ioc.test.component.PropertiesComponent", resolve.getClass("componentClass").getName());
+    assertNull(resolve.getStackTrace());
+
+    assertTrue(events
+            .stream()
+            .anyMatch((e) -> e.getEventType().getName().equals("vinscom.ioc.Inject") && "setPropString".equals(e.getString("method"))));
+    assertTrue(events
+            .stream()
+            .anyMatch((e) -> e.getEventType().getName().equals("vinscom.ioc.FileLookup") && e.getString("path").endsWith("/testconfig.json")));
+  }
+
+  @Test
+  public void testFailedResolve() throws Exception {
+
+    Assume.assumeTrue(FlightEvents.isSupported());
+
+    String path = "/vinscom/ioc/test/component/NotConfigured";
+    Path file = Files.createTempFile("glue", ".jfr");
+    List<RecordedEvent> events;
+
+    try (Recording recording = new Recording()) {
+      recording.enable("vinscom.ioc.Resolve").withThreshold(Duration.ZERO);
+      recording.start();
+      try {
+        Glue.instance().resolve(path);
+        fail("Component without configuration must fail");
+      } catch (RuntimeException ex) {
+        //Expected
+      }
+      recording.stop();
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+
+    RecordedEvent resolve = events
+            .stream()
+            .filter((e) -> e.getEventType().getName().equals("vinscom.ioc.Resolve") && path.equals(e.getString("path")))
+            .findFirst()
+            .get();
+
+    assertNull(resolve.getClass("componentClass"));
+    assertFalse(resolve.getBoolean("created"));
+  }
+
+}
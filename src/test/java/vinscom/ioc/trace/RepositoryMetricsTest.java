@@ -0,0 +1,65 @@
+package vinscom.ioc.trace;
+
+import org.junit.After;
+import org.junit.Test;
+import vinscom.ioc.Glue;
+import vinscom.ioc.component.Metrics;
+import vinscom.ioc.enumeration.ComponentScopeType;
+import vinscom.ioc.test.component.PropertiesComponent;
+import static org.junit.Assert.*;
+
+public class RepositoryMetricsTest {
+
+  private static final String LOCAL = "/vinscom/ioc/test/component/PropertiesComponent";
+  private static final String GLOBAL = "/vinscom/ioc/test/component/GlobalObjectByDefault";
+
+  @After
+  public void tearDown() {
+    RepositoryMetrics.setEnabled(false);
+    RepositoryMetrics.reset();
+  }
+
+  @Test
+  public void testMetrics() {
+
+    Metrics metrics = Glue.instance().resolve("/vinscom/ioc/test/component/Metrics", Metrics.class);
+    assertTrue(RepositoryMetrics.isEnabled());
+    metrics.reset();
+
+    PropertiesComponent first = Glue.instance().resolve(LOCAL, PropertiesComponent.class);
+    Glue.instance().resolve(LOCAL, PropertiesComponent.class);
+    first.propServiceMap.get("a");
+
+    MetricsSnapshot snapshot = metrics.snapshot();
+    MetricsSnapshot.Component local = snapshot.getComponent(LOCAL);
+
+    assertEquals(ComponentScopeType.LOCAL, local.getScope());
+    assertEquals(2, local.getResolves());
+    assertEquals(2, local.getCreated());
+    assertEquals(LOCAL, snapshot.getTopLocalComponents(1).get(0).getPath());
+    assertTrue(snapshot.getComponent(GLOBAL).getHits() >= 2);
+    assertTrue(snapshot.getGlobalHitRatio() > 0);
+    assertEquals(1, snapshot.getServiceMapLookups());
+    assertTrue(snapshot.getCreation().getCount() >= 2);
+    assertEquals(2, metrics.toJson().getLong("localCreated").longValue());
+  }
+
+  @Test
+  public void testHistogram() {
+
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(500, snapshot.getMeanNanos());
+    assertEquals(511, snapshot.getPercentileNanos(50));
+    assertEquals(1000, snapshot.getPercentileNanos(99));
+    assertEquals(1000, snapshot.getMaxNanos());
+  }
+
+}
@@ -0,0 +1,53 @@
+package vinscom.ioc.trace;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StartupTraceTest {
+
+  private final Thread thread = Thread.currentThread();
+
+  private final List<TraceEvent> events = Arrays.asList(
+          new TraceEvent(StartupTrace.RESOLVE, StartupTrace.RESOLVE, "/Initial", null, thread, 1_000_000, 10_000_000),
+          new TraceEvent(StartupTrace.RESOLVE, StartupTrace.RESOLVE, "/A", "/Initial", thread, 2_000_000, 3_000_000),
+          new TraceEvent(StartupTrace.RESOLVE, StartupTrace.RESOLVE, "/B", "/Initial", thread, 5_000_000, 5_000_000),
+          new TraceEvent(StartupTrace.RESOLVE, StartupTrace.RESOLVE, "/C", "/B", thread, 6_000_000, 1_000_000),
+          new TraceEvent(StartupTrace.INJECT, "setPropString", "/C", "/B", thread, 6_500_000, 100_000));
+
+  @Test
+  public void testChromeTrace() {
+    JsonArray traceEvents = StartupTrace.toChromeTrace(events).getJsonArray("traceEvents");
+
+    //Thread name and every event
+    assertEquals(6, traceEvents.size());
+    assertEquals("M", traceEvents.getJsonObject(0).getString("ph"));
+
+    JsonObject b = traceEvents.getJsonObject(3);
+    assertEquals("/B", b.getString("name"));
+    assertEquals("X", b.getString("ph"));
+    assertEquals(4000.0, b.getDouble("ts"), 0.001);
+    assertEquals(5000.0, b.getDouble("dur"), 0.001);
+    assertEquals("/Initial", b.getJsonObject("args").getString("parent"));
+    assertEquals("setPropString", traceEvents.getJsonObject(5).getString("name"));
+  }
+
+  @Test
+  public void testSummary() {
+    TraceSummary summary = new TraceSummary(events);
+
+    List<TraceEvent> critical = summary.getCriticalPath();
+    assertEquals(3, critical.size());
+    assertEquals("/Initial", critical.get(0).getPath());
+    assertEquals("/B", critical.get(1).getPath());
+    assertEquals("/C", critical.get(2).getPath());
+
+    String text = summary.toString();
+    //Own time of /Initial is 10 - 3 - 5 ms
+    assertTrue(text, text.contains("2.000       10.000        1  /Initial"));
+  }
+
+}